@@ -0,0 +1,15 @@
+-- Account.id pasa de AUTO_INCREMENT a un generador de tabla agrupado (id_block, bloques de 100).
+-- Hibernate crea la tabla en bases nuevas (ddl-auto); en bases existentes hay que sembrar el contador
+-- por encima del id maximo actual para que los nuevos ids no choquen con las cuentas existentes.
+USE `core_banking_system2`;
+
+CREATE TABLE IF NOT EXISTS `id_block` (
+  `name` varchar(255) NOT NULL,
+  `next_value` bigint DEFAULT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `id_block` (`name`, `next_value`)
+SELECT 'account', COALESCE(MAX(a.`id`), 0) + 101
+FROM `account` a
+WHERE NOT EXISTS (SELECT 1 FROM `id_block` b WHERE b.`name` = 'account');
@@ -0,0 +1,10 @@
+-- Migracion de account.balance (double) a account.balance_minor (bigint, centimos).
+-- Ejecutar con la aplicacion detenida y antes de desplegar la version que usa balance_minor.
+USE `core_banking_system2`;
+
+ALTER TABLE `account` ADD COLUMN `balance_minor` bigint NOT NULL DEFAULT 0;
+
+-- El paso por DECIMAL evita que 521.56 * 100 se redondee a 52155
+UPDATE `account` SET `balance_minor` = CAST(ROUND(CAST(`balance` AS DECIMAL(19,4)) * 100) AS SIGNED);
+
+ALTER TABLE `account` DROP COLUMN `balance`;
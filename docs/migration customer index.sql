@@ -0,0 +1,5 @@
+-- Indice sobre customer_id para las consultas por cliente (GET /accounts/customer/{id} y /summary).
+-- Hibernate lo crea en bases nuevas (ddl-auto); este script es para bases existentes.
+USE `core_banking_system2`;
+
+CREATE INDEX `idx_account_customer` ON `account` (`customer_id`);
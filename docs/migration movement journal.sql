@@ -0,0 +1,29 @@
+-- Diario de movimientos y fotos de saldo. Las tablas tambien las crea Hibernate (ddl-auto=update);
+-- este script sirve para bases existentes: crea las tablas y deja una foto inicial por cuenta,
+-- de modo que el saldo historico de las cuentas previas al diario parta de su saldo actual.
+USE `core_banking_system2`;
+
+CREATE TABLE IF NOT EXISTS `account_movement` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `account_id` bigint NOT NULL,
+  `type` varchar(20) NOT NULL,
+  `amount` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_movement_account_created` (`account_id`, `created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `account_balance_snapshot` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `account_id` bigint NOT NULL,
+  `last_movement_id` bigint NOT NULL,
+  `balance` bigint NOT NULL,
+  `taken_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_snapshot_account_taken` (`account_id`, `taken_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+INSERT INTO `account_balance_snapshot` (`account_id`, `last_movement_id`, `balance`, `taken_at`)
+SELECT a.`id`, 0, a.`balance_minor`, UTC_TIMESTAMP(6)
+FROM `account` a
+WHERE NOT EXISTS (SELECT 1 FROM `account_balance_snapshot` s WHERE s.`account_id` = a.`id`);
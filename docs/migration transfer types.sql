@@ -0,0 +1,7 @@
+-- Las transferencias agregan los tipos de movimiento TRANSFER_OUT / TRANSFER_IN y el tipo de respuesta
+-- idempotente TRANSFER. Hibernate crea estas columnas como ENUM de MySQL y ddl-auto=update no amplia
+-- la lista de valores, asi que en bases existentes se pasan a varchar.
+USE `core_banking_system2`;
+
+ALTER TABLE `account_movement` MODIFY `type` varchar(20) NOT NULL;
+ALTER TABLE `idempotency_key` MODIFY `body_type` varchar(10) DEFAULT NULL;
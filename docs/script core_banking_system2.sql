@@ -28,7 +28,7 @@ CREATE TABLE `account` (
   `id` bigint NOT NULL AUTO_INCREMENT,
   `customer_id` bigint DEFAULT NULL,
   `account_number` varchar(255) DEFAULT NULL,
-  `balance` double DEFAULT NULL,
+  `balance_minor` bigint NOT NULL DEFAULT 0,
   `type_account` enum('ahorros','corriente') NOT NULL,
   PRIMARY KEY (`id`),
   UNIQUE KEY `UK66gkcp94endmotfwb8r4ocxm9` (`account_number`),
@@ -43,7 +43,7 @@ CREATE TABLE `account` (
 
 LOCK TABLES `account` WRITE;
 /*!40000 ALTER TABLE `account` DISABLE KEYS */;
-INSERT INTO `account` VALUES (1,5,'317337',521.56,'ahorros'),(2,3,'658445',323.12,'corriente'),(3,1,'146504',893.78,'ahorros'),(4,8,'894558',547.64,'corriente'),(5,10,'244386',125.39,'ahorros'),(6,6,'588396',980.45,'corriente'),(7,4,'881139',634.22,'ahorros'),(8,2,'454483',295.76,'corriente'),(9,7,'625284',822.9,'ahorros'),(10,9,'406719',473.56,'corriente'),(11,5,'903574',500,'ahorros');
+INSERT INTO `account` VALUES (1,5,'317337',52156,'ahorros'),(2,3,'658445',32312,'corriente'),(3,1,'146504',89378,'ahorros'),(4,8,'894558',54764,'corriente'),(5,10,'244386',12539,'ahorros'),(6,6,'588396',98045,'corriente'),(7,4,'881139',63422,'ahorros'),(8,2,'454483',29576,'corriente'),(9,7,'625284',82290,'ahorros'),(10,9,'406719',47356,'corriente'),(11,5,'903574',50000,'ahorros');
 /*!40000 ALTER TABLE `account` ENABLE KEYS */;
 UNLOCK TABLES;
 
@@ -0,0 +1,48 @@
+package com.corebankingsystem.AccountMs.benchmark;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Caminos principales de AccountServiceImpl con un solo hilo y cuentas distribuidas al azar
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class AccountServiceBenchmark {
+
+    @Benchmark
+    public Object createAccount(AccountServiceState state) {
+        return state.accountService.createAccount(10000L, Account.TypeAccount.ahorros, state.randomCustomer());
+    }
+
+    @Benchmark
+    public Object deposit(AccountServiceState state) {
+        return state.accountService.deposit(state.accountIds[state.randomIndex()], 100L);
+    }
+
+    @Benchmark
+    public Object withdraw(AccountServiceState state) {
+        return state.accountService.withdraw(state.accountIds[state.randomIndex()], 100L);
+    }
+
+    @Benchmark
+    public Object getAccountByNumber(AccountServiceState state) {
+        return state.accountService.getAccountByNumber(state.accountNumbers[state.randomIndex()]);
+    }
+
+    @Benchmark
+    public Object getCustomerId(AccountServiceState state) {
+        return state.accountService.getCustomerId(state.randomCustomer());
+    }
+}
@@ -0,0 +1,58 @@
+package com.corebankingsystem.AccountMs.benchmark;
+
+import com.corebankingsystem.AccountMs.AccountMsApplication;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Levanta el contexto de Spring sobre H2 en memoria (configuracion de src/test/resources)
+// y crea un conjunto de cuentas con saldo suficiente para que los retiros no se rechacen
+@State(Scope.Benchmark)
+public class AccountServiceState {
+
+    static final int ACCOUNTS = 1000;
+    static final int CUSTOMERS = 100;
+
+    ConfigurableApplicationContext context;
+    AccountService accountService;
+    long[] accountIds;
+    String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AccountMsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+        accountService = context.getBean(AccountService.class);
+        accountIds = new long[ACCOUNTS];
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = accountService.createAccount(1_000_000_000L, Account.TypeAccount.corriente, (i % CUSTOMERS) + 1L);
+            accountIds[i] = account.getId();
+            accountNumbers[i] = account.getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    long randomCustomer() {
+        return ThreadLocalRandom.current().nextInt(CUSTOMERS) + 1L;
+    }
+}
@@ -0,0 +1,69 @@
+package com.corebankingsystem.AccountMs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Contencion: varios hilos depositando y retirando sobre unas pocas cuentas "calientes"
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HotAccountBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class HotAccounts {
+        @Param({"1", "4"})
+        int hotAccounts;
+
+        long pick(AccountServiceState state) {
+            return state.accountIds[ThreadLocalRandom.current().nextInt(hotAccounts)];
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object contendedDeposit(AccountServiceState state, HotAccounts hot) {
+        return state.accountService.deposit(hot.pick(state), 100L);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object contendedWithdraw(AccountServiceState state, HotAccounts hot) {
+        return state.accountService.withdraw(hot.pick(state), 100L);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Object mixedDeposit(AccountServiceState state, HotAccounts hot) {
+        return state.accountService.deposit(hot.pick(state), 100L);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Object mixedWithdraw(AccountServiceState state, HotAccounts hot) {
+        return state.accountService.withdraw(hot.pick(state), 100L);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object contendedLookup(AccountServiceState state, HotAccounts hot) {
+        return state.accountService.getAccountByNumber(state.accountNumbers[ThreadLocalRandom.current().nextInt(hot.hotAccounts)]);
+    }
+}
@@ -0,0 +1,402 @@
+package com.corebankingsystem.AccountMs.benchmark;
+
+import com.corebankingsystem.AccountMs.AccountMsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Prueba de carga / soak de extremo a extremo. Levanta la aplicacion sobre H2 (configuracion de src/test/resources)
+// con un CustomerMS simulado, crea las cuentas de partida y lanza una mezcla de create, byAccountNumber, tDeposit y
+// tWithdrawal a un ritmo objetivo (bucle abierto). Una parte de las operaciones va a una sola cuenta caliente.
+// La latencia se mide desde el instante en que la peticion debia salir, no desde que sale, para que un servidor
+// saturado no oculte su cola (coordinated omission). El resultado se escribe en JSON para comparar versiones.
+public final class LoadHarness {
+
+    private static final AtomicLong CUSTOMER_IDS = new AtomicLong(2_000_000L);
+
+    private enum Operation {
+        create, lookup, deposit, withdrawal
+    }
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "10"));
+        int windowSeconds = Integer.parseInt(options.getOrDefault("window-seconds", "10"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "200"));
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "1000"));
+        double hotShare = Double.parseDouble(options.getOrDefault("hot-share", "0.2"));
+        int customerLatencyMs = Integer.parseInt(options.getOrDefault("customer-latency-ms", "5"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "create:5,lookup:50,deposit:25,withdrawal:20"));
+        String label = options.getOrDefault("label", "unlabeled");
+        File output = new File(options.getOrDefault("output", "target/load-result.json"));
+
+        // HttpURLConnection solo reutiliza 5 conexiones keep-alive por destino si no se amplia
+        System.setProperty("http.maxConnections", String.valueOf(connections));
+
+        HttpServer customerStub = startCustomerStub(customerLatencyMs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountMsApplication.class)
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "customer.service.base-url=http://localhost:" + customerStub.getAddress().getPort(),
+                        "customer.service.max-connections=" + connections,
+                        "customer.service.read-timeout-ms=10000")
+                .run();
+        ExecutorService workers = Executors.newFixedThreadPool(connections);
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/accounts/";
+            List<String> accountNumbers = seedAccounts(baseUrl, accounts);
+            Workload workload = new Workload(baseUrl, accountNumbers, mix, hotShare);
+
+            Stats stats = new Stats(windowSeconds);
+            long started = System.nanoTime();
+            long measureFrom = started + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            long sent = 0;
+            for (long intended = started; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                final long scheduled = intended;
+                Operation operation = workload.pick();
+                workers.execute(() -> {
+                    int status = workload.execute(operation);
+                    if (scheduled >= measureFrom) {
+                        stats.record(operation, status, scheduled - measureFrom, System.nanoTime() - scheduled);
+                    }
+                });
+                sent++;
+            }
+            workers.shutdown();
+            boolean drained = workers.awaitTermination(60, TimeUnit.SECONDS);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("label", label);
+            result.put("timestamp", Instant.now().toString());
+            result.put("java", System.getProperty("java.version"));
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("targetRate", rate);
+            config.put("seconds", seconds);
+            config.put("warmupSeconds", warmupSeconds);
+            config.put("connections", connections);
+            config.put("accounts", accounts);
+            config.put("hotShare", hotShare);
+            config.put("customerLatencyMs", customerLatencyMs);
+            config.put("mix", mix);
+            result.put("config", config);
+            result.put("sent", sent);
+            result.put("drained", drained);
+            result.putAll(stats.summary(seconds));
+
+            File parent = output.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, result);
+            stats.print(seconds);
+            System.out.println("Results written to " + output.getPath());
+        } finally {
+            workers.shutdownNow();
+            context.close();
+            customerStub.stop(0);
+        }
+    }
+
+    // Cuentas corrientes con saldo alto para que los retiros de la prueba no se queden sin fondos
+    private static List<String> seedAccounts(String baseUrl, int count) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String body = "{\"balance\":\"1000000.00\",\"typeAccount\":\"corriente\",\"customerId\":" + CUSTOMER_IDS.incrementAndGet() + "}";
+            Response response = send("POST", baseUrl, body);
+            if (response.status != 201) {
+                throw new IllegalStateException("Could not create seed account: HTTP " + response.status);
+            }
+            numbers.add(mapper.readTree(response.body).path("accountNumber").asText());
+        }
+        return numbers;
+    }
+
+    private static final class Workload {
+        private final String baseUrl;
+        private final List<String> accountNumbers;
+        private final Operation[] weighted;
+        private final double hotShare;
+
+        private Workload(String baseUrl, List<String> accountNumbers, Map<Operation, Integer> mix, double hotShare) {
+            this.baseUrl = baseUrl;
+            this.accountNumbers = accountNumbers;
+            this.hotShare = hotShare;
+            List<Operation> slots = new ArrayList<>();
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                for (int i = 0; i < entry.getValue(); i++) {
+                    slots.add(entry.getKey());
+                }
+            }
+            if (slots.isEmpty()) {
+                throw new IllegalArgumentException("The workload mix is empty");
+            }
+            this.weighted = slots.toArray(new Operation[0]);
+        }
+
+        Operation pick() {
+            return weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+        }
+
+        // La primera cuenta sembrada es la cuenta caliente
+        private String account() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < hotShare) {
+                return accountNumbers.get(0);
+            }
+            return accountNumbers.get(random.nextInt(accountNumbers.size()));
+        }
+
+        int execute(Operation operation) {
+            try {
+                switch (operation) {
+                    case create:
+                        return send("POST", baseUrl, "{\"balance\":\"100.00\",\"typeAccount\":\"ahorros\",\"customerId\":"
+                                + CUSTOMER_IDS.incrementAndGet() + "}").status;
+                    case lookup:
+                        return send("GET", baseUrl + "byAccountNumber/" + account(), null).status;
+                    case deposit:
+                        return send("POST", baseUrl + "tDeposit", "{\"accountNumber\":\"" + account() + "\",\"amount\":\"10.00\"}").status;
+                    default:
+                        return send("POST", baseUrl + "tWithdrawal", "{\"accountNumber\":\"" + account() + "\",\"amount\":\"10.00\"}").status;
+                }
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+    }
+
+    private static Response send(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(30000);
+        connection.setReadTimeout(30000);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        byte[] content = new byte[0];
+        if (in != null) {
+            // se consume la respuesta completa para reutilizar la conexion keep-alive
+            try (InputStream drained = in) {
+                content = readAll(drained);
+            }
+        }
+        return new Response(status, content);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    private static HttpServer startCustomerStub(int latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/customers/", exchange -> {
+            if (latencyMs > 0) {
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String id = exchange.getRequestURI().getPath().substring("/customers/".length());
+            byte[] response = ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Response {
+        private final int status;
+        private final byte[] body;
+
+        private Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Latencias por operacion para todo el periodo medido y, para el soak, por ventanas de window-seconds
+    private static final class Stats {
+        private final long windowNanos;
+        private final Map<Operation, Recorder> byOperation = new EnumMap<>(Operation.class);
+        private final Map<Long, Recorder> byWindow = new ConcurrentHashMap<>();
+
+        private Stats(int windowSeconds) {
+            this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+            for (Operation operation : Operation.values()) {
+                byOperation.put(operation, new Recorder());
+            }
+        }
+
+        void record(Operation operation, int status, long offset, long nanos) {
+            byOperation.get(operation).record(status, nanos);
+            byWindow.computeIfAbsent(offset / windowNanos, w -> new Recorder()).record(status, nanos);
+        }
+
+        Map<String, Object> summary(int seconds) {
+            Recorder total = new Recorder();
+            Map<String, Object> operations = new LinkedHashMap<>();
+            for (Map.Entry<Operation, Recorder> entry : byOperation.entrySet()) {
+                operations.put(entry.getKey().name(), entry.getValue().summary(seconds));
+                total.merge(entry.getValue());
+            }
+            List<Object> windows = new ArrayList<>();
+            double windowSeconds = windowNanos / 1e9;
+            for (long window = 0; window * windowNanos < TimeUnit.SECONDS.toNanos(seconds); window++) {
+                Recorder recorder = byWindow.getOrDefault(window, new Recorder());
+                Map<String, Object> summary = recorder.summary(windowSeconds);
+                summary.put("startSecond", window * windowSeconds);
+                windows.add(summary);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", total.summary(seconds));
+            result.put("operations", operations);
+            result.put("windows", windows);
+            return result;
+        }
+
+        void print(int seconds) {
+            System.out.printf("%noperation   req/s      p50 ms   p99 ms   p999 ms  max ms   rejected errors%n");
+            for (Map.Entry<Operation, Recorder> entry : byOperation.entrySet()) {
+                Recorder recorder = entry.getValue();
+                System.out.printf("%-11s %-10.0f %-8.1f %-8.1f %-8.1f %-8.1f %-8d %d%n", entry.getKey(),
+                        recorder.count / (double) seconds, recorder.percentile(0.50), recorder.percentile(0.99),
+                        recorder.percentile(0.999), recorder.percentile(1.0), recorder.rejected, recorder.errors);
+            }
+        }
+    }
+
+    // 2xx cuenta como exito, 422 (fondos o regla de negocio) como rechazo y el resto como error
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long rejected;
+        private long errors;
+
+        synchronized void record(int status, long nanos) {
+            if (status == 422) {
+                rejected++;
+            } else if (status < 200 || status >= 300) {
+                errors++;
+            }
+            if (status > 0) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = nanos;
+            }
+        }
+
+        synchronized void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = other.latencies[i];
+            }
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        synchronized double percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.ceil(p * count) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("throughput", count / seconds);
+            summary.put("rejected", rejected);
+            summary.put("errors", errors);
+            summary.put("p50Ms", percentile(0.50));
+            summary.put("p99Ms", percentile(0.99));
+            summary.put("p999Ms", percentile(0.999));
+            summary.put("maxMs", percentile(1.0));
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.corebankingsystem.AccountMs.benchmark;
+
+import com.corebankingsystem.AccountMs.AccountMsApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Comparacion de carga entre hilos de plataforma (pool de Tomcat de 200) e hilos virtuales.
+// Levanta la aplicacion sobre H2 (configuracion de src/test/resources) y un CustomerMS simulado con latencia
+// fija, y lanza POST /accounts desde muchos clientes concurrentes con un customerId distinto en cada peticion
+// para que todas hagan la llamada bloqueante a CustomerMS. El modo virtual solo se ejecuta en Java 21+.
+public final class ThreadModeLoadComparison {
+
+    private static final AtomicLong CUSTOMER_IDS = new AtomicLong(1_000_000L);
+
+    private ThreadModeLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "5"));
+        int customerLatencyMs = Integer.parseInt(options.getOrDefault("customer-latency-ms", "50"));
+
+        HttpServer customerStub = startCustomerStub(customerLatencyMs);
+        String customerUrl = "http://localhost:" + customerStub.getAddress().getPort();
+        List<String> report = new ArrayList<>();
+        try {
+            report.add(run("platform", false, customerUrl, clients, warmupSeconds, seconds));
+            if (Runtime.version().feature() >= 21) {
+                report.add(run("virtual", true, customerUrl, clients, warmupSeconds, seconds));
+            } else {
+                report.add("virtual   skipped: requires Java 21 (mvn -Pjmh,java21 ...)");
+            }
+        } finally {
+            customerStub.stop(0);
+        }
+
+        System.out.printf("%nPOST /accounts, %d clients, %d s, CustomerMS latency %d ms%n", clients, seconds, customerLatencyMs);
+        System.out.println("mode      req/s      p50 ms   p99 ms   max ms   errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, boolean virtual, String customerUrl, int clients,
+                              int warmupSeconds, int seconds) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountMsApplication.class)
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.threads.max=200",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "customer.service.base-url=" + customerUrl,
+                        "customer.service.max-connections=" + clients,
+                        "customer.service.read-timeout-ms=10000",
+                        "customer.service.connect-timeout-ms=10000")
+                .run();
+        try {
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/accounts";
+            drive(url, clients, warmupSeconds);
+            Result result = drive(url, clients, seconds);
+            return String.format("%-9s %-10.0f %-8.1f %-8.1f %-8.1f %d", mode,
+                    result.count / (double) seconds,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors);
+        } finally {
+            context.close();
+        }
+    }
+
+    // Cada cliente es un hilo de plataforma del generador de carga que repite peticiones hasta el plazo
+    private static Result drive(String url, int clients, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    Result local = new Result();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok = createAccount(url);
+                        local.record(System.nanoTime() - start, ok);
+                    }
+                    return local;
+                }));
+            }
+            Result total = new Result();
+            for (Future<Result> future : futures) {
+                total.merge(future.get());
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean createAccount(String url) {
+        String body = "{\"balance\":\"10.00\",\"typeAccount\":\"ahorros\",\"customerId\":" + CUSTOMER_IDS.incrementAndGet() + "}";
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(30000);
+            connection.setReadTimeout(30000);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (in != null) {
+                try (InputStream drained = in) {
+                    while (drained.read() != -1) {
+                        // se consume la respuesta para reutilizar la conexion keep-alive
+                    }
+                }
+            }
+            return status == 201;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static HttpServer startCustomerStub(int latencyMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/customers/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String id = exchange.getRequestURI().getPath().substring("/customers/".length());
+            byte[] response = ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        double percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.min(count - 1, Math.ceil(p * count) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
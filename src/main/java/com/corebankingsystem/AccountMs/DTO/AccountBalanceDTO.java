@@ -0,0 +1,65 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Vista reducida de la cuenta para TransactionMS: solo lo necesario para validar y registrar la transaccion
+public class AccountBalanceDTO {
+    private Long id;
+    private String accountNumber;
+    private Account.TypeAccount typeAccount;
+    // Saldo en centimos; en JSON se expone como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long balance;
+
+    // Constructor, getters y setters
+
+    public AccountBalanceDTO() {
+    }
+
+    public AccountBalanceDTO(Long id, String accountNumber, Account.TypeAccount typeAccount, long balance) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.typeAccount = typeAccount;
+        this.balance = balance;
+    }
+
+    public static AccountBalanceDTO from(Account account) {
+        return new AccountBalanceDTO(account.getId(), account.getAccountNumber(), account.getTypeAccount(), account.getBalance());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Account.TypeAccount getTypeAccount() {
+        return typeAccount;
+    }
+
+    public void setTypeAccount(Account.TypeAccount typeAccount) {
+        this.typeAccount = typeAccount;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+}
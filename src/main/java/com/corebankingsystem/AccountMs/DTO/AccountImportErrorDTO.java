@@ -0,0 +1,30 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+public class AccountImportErrorDTO {
+    // Numero de linea en el fichero de entrada, empezando en 1
+    private long line;
+    private String message;
+
+    // Constructor, getters y setters
+
+    public AccountImportErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
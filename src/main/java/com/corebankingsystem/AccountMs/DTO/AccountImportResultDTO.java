@@ -0,0 +1,52 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import java.util.List;
+
+public class AccountImportResultDTO {
+    private long received;
+    private long imported;
+    // Total de filas rechazadas; puede ser mayor que errors.size() cuando la lista se recorta
+    private long failed;
+    private List<AccountImportErrorDTO> errors;
+
+    // Constructor, getters y setters
+
+    public AccountImportResultDTO(long received, long imported, long failed, List<AccountImportErrorDTO> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<AccountImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<AccountImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,33 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+
+import java.util.List;
+
+public class AccountPageDTO {
+    private List<Account> content;
+    private Long nextCursor;
+
+    // Constructor, getters y setters
+
+    public AccountPageDTO(List<Account> content, Long nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Account> getContent() {
+        return content;
+    }
+
+    public void setContent(List<Account> content) {
+        this.content = content;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
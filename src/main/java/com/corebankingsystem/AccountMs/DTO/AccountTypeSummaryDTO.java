@@ -0,0 +1,45 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class AccountTypeSummaryDTO {
+    private Account.TypeAccount typeAccount;
+    private long accounts;
+    // Suma de saldos en centimos; en JSON se expone como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+
+    // Constructor, getters y setters
+
+    public AccountTypeSummaryDTO(Account.TypeAccount typeAccount, long accounts, long balance) {
+        this.typeAccount = typeAccount;
+        this.accounts = accounts;
+        this.balance = balance;
+    }
+
+    public Account.TypeAccount getTypeAccount() {
+        return typeAccount;
+    }
+
+    public void setTypeAccount(Account.TypeAccount typeAccount) {
+        this.typeAccount = typeAccount;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,51 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class BatchMovementDTO {
+    private String accountNumber;
+    // DEPOSIT o WITHDRAWAL
+    private AccountMovement.MovementType type;
+    // Importe en centimos; en JSON se recibe como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
+
+    // Constructor, getters y setters
+
+    public BatchMovementDTO() {
+    }
+
+    public BatchMovementDTO(String accountNumber, AccountMovement.MovementType type, long amount) {
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public AccountMovement.MovementType getType() {
+        return type;
+    }
+
+    public void setType(AccountMovement.MovementType type) {
+        this.type = type;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+}
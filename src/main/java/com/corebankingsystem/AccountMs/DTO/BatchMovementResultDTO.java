@@ -0,0 +1,67 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchMovementResultDTO {
+    private int index;
+    private String accountNumber;
+    // 200 aplicado, 400 importe invalido, 404 cuenta inexistente, 422 sobregiro no permitido
+    private int status;
+    private String message;
+    // Saldo de la cuenta despues de este movimiento, solo si se aplico
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long balance;
+
+    // Constructor, getters y setters
+
+    public BatchMovementResultDTO(int index, String accountNumber, int status, String message, Long balance) {
+        this.index = index;
+        this.accountNumber = accountNumber;
+        this.status = status;
+        this.message = message;
+        this.balance = balance;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Long balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,35 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+
+import java.util.List;
+
+public class ChangesPageDTO {
+    private List<OutboxEvent> events;
+    // Cursor para la siguiente llamada (after); igual al recibido si no hubo cambios. Con shards lleva
+    // una posicion por shard separadas por comas
+    private String nextCursor;
+
+    // Constructor, getters y setters
+
+    public ChangesPageDTO(List<OutboxEvent> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<OutboxEvent> events) {
+        this.events = events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+public class CustomerSummaryDTO {
+    private long customerId;
+    private long accounts;
+    // Saldo total en centimos; en JSON se expone como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+    private List<AccountTypeSummaryDTO> byType;
+
+    // Constructor, getters y setters
+
+    public CustomerSummaryDTO(long customerId, long accounts, long balance, List<AccountTypeSummaryDTO> byType) {
+        this.customerId = customerId;
+        this.accounts = accounts;
+        this.balance = balance;
+        this.byType = byType;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(long customerId) {
+        this.customerId = customerId;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(long balance) {
+        this.balance = balance;
+    }
+
+    public List<AccountTypeSummaryDTO> getByType() {
+        return byType;
+    }
+
+    public void setByType(List<AccountTypeSummaryDTO> byType) {
+        this.byType = byType;
+    }
+}
@@ -1,12 +1,22 @@
 package com.corebankingsystem.AccountMs.DTO;
 
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 public class DepositRequestDTO {
     private String accountNumber;
-    private double amount;
+    // Importe en centimos; en JSON se recibe como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
 
     // Constructor, getters y setters
 
-    public DepositRequestDTO(String accountNumber, double amount) {
+    public DepositRequestDTO() {
+    }
+
+    public DepositRequestDTO(String accountNumber, long amount) {
         this.accountNumber = accountNumber;
         this.amount = amount;
     }
@@ -19,11 +29,11 @@ public class DepositRequestDTO {
         this.accountNumber = accountNumber;
     }
 
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 }
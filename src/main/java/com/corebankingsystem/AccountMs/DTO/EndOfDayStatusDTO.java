@@ -0,0 +1,135 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public class EndOfDayStatusDTO {
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private LocalDate businessDate;
+    private State state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    // Bloques confirmados en esta ejecucion, saltados por un punto de control previo y fallidos (se reintentan al relanzar)
+    private long chunks;
+    private long skippedChunks;
+    private long failedChunks;
+    private long accounts;
+    // Totales en centimos; en JSON se exponen como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long interest;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long fees;
+    private double accountsPerSecond;
+
+    // Constructor, getters y setters
+
+    public EndOfDayStatusDTO(LocalDate businessDate, State state, Instant startedAt, Instant finishedAt, long chunks,
+                             long skippedChunks, long failedChunks, long accounts, long interest, long fees,
+                             double accountsPerSecond) {
+        this.businessDate = businessDate;
+        this.state = state;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.chunks = chunks;
+        this.skippedChunks = skippedChunks;
+        this.failedChunks = failedChunks;
+        this.accounts = accounts;
+        this.interest = interest;
+        this.fees = fees;
+        this.accountsPerSecond = accountsPerSecond;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public void setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(long chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getSkippedChunks() {
+        return skippedChunks;
+    }
+
+    public void setSkippedChunks(long skippedChunks) {
+        this.skippedChunks = skippedChunks;
+    }
+
+    public long getFailedChunks() {
+        return failedChunks;
+    }
+
+    public void setFailedChunks(long failedChunks) {
+        this.failedChunks = failedChunks;
+    }
+
+    public long getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(long accounts) {
+        this.accounts = accounts;
+    }
+
+    public long getInterest() {
+        return interest;
+    }
+
+    public void setInterest(long interest) {
+        this.interest = interest;
+    }
+
+    public long getFees() {
+        return fees;
+    }
+
+    public void setFees(long fees) {
+        this.fees = fees;
+    }
+
+    public double getAccountsPerSecond() {
+        return accountsPerSecond;
+    }
+
+    public void setAccountsPerSecond(double accountsPerSecond) {
+        this.accountsPerSecond = accountsPerSecond;
+    }
+}
@@ -0,0 +1,24 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+// Cuerpo de error de los endpoints de TransactionMS: un objeto en lugar de texto plano, para que
+// el mismo convertidor (JSON o CBOR) que codifica las respuestas correctas codifique tambien los errores
+public class ErrorResponseDTO {
+    private String message;
+
+    // Constructor, getters y setters
+
+    public ErrorResponseDTO() {
+    }
+
+    public ErrorResponseDTO(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
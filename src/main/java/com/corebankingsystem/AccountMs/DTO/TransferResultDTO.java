@@ -0,0 +1,73 @@
+package com.corebankingsystem.AccountMs.DTO;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class TransferResultDTO {
+    private Long sourceAccountId;
+    private Long targetAccountId;
+    // Importes en centimos; en JSON se exponen como decimal
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long sourceBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long targetBalance;
+
+    // Constructor, getters y setters
+
+    public TransferResultDTO() {
+    }
+
+    public TransferResultDTO(Long sourceAccountId, Long targetAccountId, long amount, long sourceBalance, long targetBalance) {
+        this.sourceAccountId = sourceAccountId;
+        this.targetAccountId = targetAccountId;
+        this.amount = amount;
+        this.sourceBalance = sourceBalance;
+        this.targetBalance = targetBalance;
+    }
+
+    public Long getSourceAccountId() {
+        return sourceAccountId;
+    }
+
+    public void setSourceAccountId(Long sourceAccountId) {
+        this.sourceAccountId = sourceAccountId;
+    }
+
+    public Long getTargetAccountId() {
+        return targetAccountId;
+    }
+
+    public void setTargetAccountId(Long targetAccountId) {
+        this.targetAccountId = targetAccountId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+
+    public long getSourceBalance() {
+        return sourceBalance;
+    }
+
+    public void setSourceBalance(long sourceBalance) {
+        this.sourceBalance = sourceBalance;
+    }
+
+    public long getTargetBalance() {
+        return targetBalance;
+    }
+
+    public void setTargetBalance(long targetBalance) {
+        this.targetBalance = targetBalance;
+    }
+}
@@ -0,0 +1,70 @@
+package com.corebankingsystem.AccountMs.client;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Circuit breaker minimo: se abre tras N fallos consecutivos, rechaza llamadas durante openMillis
+// y luego deja pasar una unica llamada de prueba (half-open) para decidir si se cierra o se vuelve a abrir
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final long CLOSED = -1L;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt = CLOSED;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public boolean allowRequest() {
+        long opened = openedAt;
+        if (opened == CLOSED) {
+            return true;
+        }
+        if (clock.getAsLong() - opened < openMillis) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAt = CLOSED;
+        trialInFlight.set(false);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = clock.getAsLong();
+        }
+        trialInFlight.set(false);
+    }
+
+    public State getState() {
+        long opened = openedAt;
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        if (clock.getAsLong() - opened < openMillis) {
+            return State.OPEN;
+        }
+        return State.HALF_OPEN;
+    }
+}
@@ -0,0 +1,96 @@
+package com.corebankingsystem.AccountMs.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+// Cliente del microservicio de clientes (CustomerMS) usado para validar el customerId al abrir una cuenta.
+// Guarda en cache las respuestas positivas y negativas con TTL distintos y deja de llamar al servicio
+// mientras el circuito esta abierto.
+public class CustomerClient implements MeterBinder {
+
+    private final String baseUrl;
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Long, Boolean> missing;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    public CustomerClient(String baseUrl, RestTemplate restTemplate, CircuitBreaker circuitBreaker,
+                          Duration ttl, Duration negativeTtl, long maxSize) {
+        this.baseUrl = baseUrl;
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.existing = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build();
+        this.missing = Caffeine.newBuilder().expireAfterWrite(negativeTtl).maximumSize(maxSize).recordStats().build();
+    }
+
+    public boolean customerExists(long customerId) {
+        if (existing.getIfPresent(customerId) != null) {
+            return true;
+        }
+        if (missing.getIfPresent(customerId) != null) {
+            return false;
+        }
+        if (!circuitBreaker.allowRequest()) {
+            meterRegistry.counter("customer.service.rejected").increment();
+            throw new CustomerServiceUnavailableException("Customer service circuit is open");
+        }
+        return fetch(customerId);
+    }
+
+    private boolean fetch(long customerId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            restTemplate.getForObject(baseUrl + "/customers/" + customerId, String.class);
+            circuitBreaker.recordSuccess();
+            existing.put(customerId, Boolean.TRUE);
+            outcome = "exists";
+            return true;
+        } catch (HttpClientErrorException.NotFound e) {
+            // Solo un 404 dice que el cliente no existe; otro 4xx (401, 429...) no se cachea como ausente
+            circuitBreaker.recordSuccess();
+            missing.put(customerId, Boolean.TRUE);
+            outcome = "not_found";
+            return false;
+        } catch (RestClientException e) {
+            circuitBreaker.recordFailure();
+            throw new CustomerServiceUnavailableException("Customer service call failed", e);
+        } catch (RuntimeException e) {
+            // Cualquier otro fallo tambien cierra la llamada de prueba; si no, el circuito quedaria half-open para siempre
+            circuitBreaker.recordFailure();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("customer.service.requests")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // Latencia de la llamada a CustomerMS, estado del circuito y aciertos de las caches
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        Gauge.builder("customer.service.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, existing, "customer.exists");
+        CaffeineCacheMetrics.monitor(registry, missing, "customer.missing");
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,13 @@
+package com.corebankingsystem.AccountMs.client;
+
+// El servicio de clientes no respondio, respondio con error o el circuito esta abierto
+public class CustomerServiceUnavailableException extends RuntimeException {
+
+    public CustomerServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public CustomerServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,382 @@
+package com.corebankingsystem.AccountMs.coalescing;
+
+import com.corebankingsystem.AccountMs.datasource.ReplicaRouting;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
+import com.corebankingsystem.AccountMs.repository.AccountBatchRepository;
+import com.corebankingsystem.AccountMs.service.impl.AccountCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Agrupacion de escrituras (group commit) para cuentas calientes. Los tDeposit / tWithdrawal de una cuenta se
+// encolan y, pasado accounts.coalescing.window-ms desde el primero, se aplican juntos en una transaccion: un
+// bloqueo de fila, un UPDATE con el saldo neto y un lote de movimientos en el diario. Los retiros se validan
+// contra el saldo minimo en orden de llegada y cada llamante recibe su propio resultado con el saldo que dejo
+// su movimiento, despues del commit. La cola de cada cuenta esta acotada: si esta llena se responde 429.
+@Component
+public class HotAccountCoalescer {
+
+    private final AccountBatchRepository accountBatchRepository;
+    private final AccountCache accountCache;
+    private final OutboxWriter outboxWriter;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Set<String> accountNumbers;
+    private final long windowMs;
+    private final int maxBatch;
+    private final int queueCapacity;
+    private final long maxWaitMs;
+    private final ScheduledExecutorService flusher;
+    private final ConcurrentHashMap<Long, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter applied;
+    private final Counter rejected;
+    private final Counter backpressure;
+    private final Counter timedOut;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Timer waitTimer;
+
+    public HotAccountCoalescer(AccountBatchRepository accountBatchRepository,
+                               AccountCache accountCache,
+                               OutboxWriter outboxWriter,
+                               ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${accounts.coalescing.enabled:false}") boolean enabled,
+                               @Value("${accounts.coalescing.account-numbers:}") String[] accountNumbers,
+                               @Value("${accounts.coalescing.window-ms:5}") long windowMs,
+                               @Value("${accounts.coalescing.max-batch:500}") int maxBatch,
+                               @Value("${accounts.coalescing.queue-capacity:2000}") int queueCapacity,
+                               @Value("${accounts.coalescing.max-wait-ms:2000}") long maxWaitMs,
+                               @Value("${accounts.coalescing.flush-threads:2}") int flushThreads) {
+        this.accountBatchRepository = accountBatchRepository;
+        this.accountCache = accountCache;
+        this.outboxWriter = outboxWriter;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.accountNumbers = new HashSet<>();
+        for (String accountNumber : accountNumbers) {
+            if (!accountNumber.trim().isEmpty()) {
+                this.accountNumbers.add(accountNumber.trim());
+            }
+        }
+        this.windowMs = windowMs;
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMs = maxWaitMs;
+        this.flusher = enabled ? newFlusher(flushThreads) : null;
+
+        meterRegistry.gauge("accounts.coalescing.queued", queued);
+        this.applied = movements(meterRegistry, "applied");
+        this.rejected = movements(meterRegistry, "rejected");
+        this.backpressure = movements(meterRegistry, "backpressure");
+        this.timedOut = movements(meterRegistry, "timeout");
+        this.batchSize = DistributionSummary.builder("accounts.coalescing.batch.size")
+                .description("Movements applied per coalesced transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("accounts.coalescing.flush")
+                .description("Duration of one coalesced transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("accounts.coalescing.wait")
+                .description("Time from enqueue until the movement is committed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Las peticiones con Idempotency-Key llegan dentro de una transaccion que guarda la clave junto con el
+    // cambio de saldo; esas, y los importes invalidos (el 400 lo da el camino directo), no se agrupan
+    public boolean accepts(String accountNumber, long amount) {
+        return enabled
+                && amount > 0
+                && (accountNumbers.isEmpty() || accountNumbers.contains(accountNumber))
+                && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    public ResponseEntity<Object> deposit(Long accountId, long amount) {
+        return submit(accountId, new Pending(AccountMovement.MovementType.DEPOSIT, amount));
+    }
+
+    public ResponseEntity<Object> withdraw(Long accountId, long amount) {
+        return submit(accountId, new Pending(AccountMovement.MovementType.WITHDRAWAL, amount));
+    }
+
+    private ResponseEntity<Object> submit(Long accountId, Pending pending) {
+        if (!enqueue(accountId, pending)) {
+            backpressure.increment();
+            return ResponseEntity.status(429).body("Too many pending movements for this account, retry later.");
+        }
+        ResponseEntity<Object> response = awaitResult(pending);
+        if (response.getStatusCode().value() == 200) {
+            ReplicaRouting.recordWrite();
+        }
+        return response;
+    }
+
+    private ResponseEntity<Object> awaitResult(Pending pending) {
+        try {
+            return pending.result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (pending.claimed.compareAndSet(false, true)) {
+                // Nadie lo tomo todavia: se descarta de la cola y el llamante sabe que no se aplico
+                timedOut.increment();
+                return ResponseEntity.status(503).body("The movement was not applied in time, retry later.");
+            }
+            // Ya esta dentro de una transaccion: se espera su resultado
+            return await(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claimed.compareAndSet(false, true)) {
+                return ResponseEntity.status(503).body("The movement was not applied, retry later.");
+            }
+            return await(pending);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private boolean enqueue(Long accountId, Pending pending) {
+        while (true) {
+            AccountQueue queue = queues.computeIfAbsent(accountId, id -> new AccountQueue());
+            queue.lock.lock();
+            try {
+                if (queue.retired) {
+                    continue;
+                }
+                if (queue.pending.size() >= queueCapacity) {
+                    return false;
+                }
+                queue.pending.add(pending);
+                queued.incrementAndGet();
+                if (!queue.scheduled) {
+                    queue.scheduled = true;
+                    try {
+                        flusher.schedule(() -> flush(accountId, queue), windowMs, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // Aplicacion deteniendose
+                        queue.scheduled = false;
+                        queue.pending.removeLast();
+                        queued.decrementAndGet();
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                queue.lock.unlock();
+            }
+        }
+    }
+
+    private void flush(Long accountId, AccountQueue queue) {
+        List<Pending> batch = new ArrayList<>();
+        queue.lock.lock();
+        try {
+            while (batch.size() < maxBatch && !queue.pending.isEmpty()) {
+                Pending pending = queue.pending.poll();
+                queued.decrementAndGet();
+                if (pending.claimed.compareAndSet(false, true)) {
+                    batch.add(pending);
+                }
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            apply(accountId, batch);
+        }
+
+        queue.lock.lock();
+        try {
+            if (queue.pending.isEmpty()) {
+                // Cola vacia: se retira del mapa para que las cuentas que dejan de recibir movimientos no ocupen memoria
+                queue.scheduled = false;
+                queue.retired = true;
+                queues.remove(accountId, queue);
+            } else {
+                // Lo que llego mientras se aplicaba el lote ya espero su ventana: siguiente lote sin demora
+                try {
+                    flusher.execute(() -> flush(accountId, queue));
+                } catch (RejectedExecutionException e) {
+                    // Aplicacion deteniendose: los llamantes que quedan reciben 503 al agotar max-wait-ms
+                }
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    private void apply(Long accountId, List<Pending> batch) {
+        long started = System.nanoTime();
+        List<ResponseEntity<Object>> responses;
+        try {
+            // El vaciado corre en un hilo propio: el shard de la cuenta se fija aqui, no viene de la peticion
+            responses = shardRouter.onAccount(accountId,
+                    () -> transactionTemplate.execute(status -> applyInTransaction(accountId, batch)));
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+            return;
+        }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            ResponseEntity<Object> response = responses.get(i);
+            if (response.getStatusCode().value() == 200) {
+                applied.increment();
+            } else {
+                rejected.increment();
+            }
+            waitTimer.record(now - batch.get(i).enqueuedAt, TimeUnit.NANOSECONDS);
+            batch.get(i).result.complete(response);
+        }
+    }
+
+    private List<ResponseEntity<Object>> applyInTransaction(Long accountId, List<Pending> batch) {
+        List<ResponseEntity<Object>> responses = new ArrayList<>(batch.size());
+        List<Account> locked = accountBatchRepository.lockByIds(Collections.singletonList(accountId));
+        if (locked.isEmpty()) {
+            for (int i = 0; i < batch.size(); i++) {
+                responses.add(ResponseEntity.status(404).body("The account ID does not exist or is invalid."));
+            }
+            return responses;
+        }
+        Account account = locked.get(0);
+        Account.TypeAccount typeAccount = account.getTypeAccount();
+        long balance = account.getBalance();
+        List<AccountMovement> journal = new ArrayList<>(batch.size());
+        Instant now = Instant.now();
+        for (Pending pending : batch) {
+            long signedAmount = pending.amount;
+            if (pending.type == AccountMovement.MovementType.WITHDRAWAL) {
+                if (!typeAccount.allowsWithdrawal(balance, pending.amount)) {
+                    responses.add(ResponseEntity.status(422).body(typeAccount.getOverdraftMessage()));
+                    continue;
+                }
+                signedAmount = -signedAmount;
+            }
+            balance = Money.add(balance, signedAmount);
+            journal.add(new AccountMovement(null, accountId, pending.type, signedAmount, now));
+            responses.add(ResponseEntity.status(200).body(snapshot(account, balance, journal.size())));
+        }
+        if (!journal.isEmpty()) {
+            account.setBalance(balance);
+            accountBatchRepository.applyMovements(Arrays.asList(account), journal);
+            outboxWriter.balanceChanged(account);
+            accountCache.evict(accountId);
+        }
+        return responses;
+    }
+
+    // Cada llamante ve el saldo (y la version, que avanza una vez por movimiento) que dejo su propio
+    // movimiento, no el neto del lote
+    private static Account snapshot(Account account, long balance, int applied) {
+        Account snapshot = new Account(account.getId(), account.getAccountNumber(), balance,
+                account.getTypeAccount(), account.getCustomerId());
+        snapshot.setVersion(account.getVersion() + applied);
+        return snapshot;
+    }
+
+    private static ResponseEntity<Object> await(Pending pending) {
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return pending.result.join();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private static Counter movements(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("accounts.coalescing.movements")
+                .description("Coalesced tDeposit / tWithdrawal movements by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static ScheduledExecutorService newFlusher(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "coalescer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Los lotes ya programados se aplican antes de cerrar (el executor ejecuta las tareas diferidas tras shutdown)
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class AccountQueue {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean retired;
+    }
+
+    private static final class Pending {
+        private final AccountMovement.MovementType type;
+        private final long amount;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        // Lo reclama el flusher al meterlo en un lote o el llamante al agotar max-wait-ms; solo uno gana
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Pending(AccountMovement.MovementType type, long amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+    }
+}
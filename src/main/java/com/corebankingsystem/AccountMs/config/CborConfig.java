@@ -0,0 +1,19 @@
+package com.corebankingsystem.AccountMs.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class CborConfig {
+
+    // application/cbor para las llamadas entre servicios (Accept / Content-Type); sin ese encabezado se sigue
+    // respondiendo JSON. Usa el mismo builder que el ObjectMapper JSON de Spring Boot, asi que los modulos,
+    // la configuracion spring.jackson.* y los serializadores de MoneyJson son los mismos en ambos formatos
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,62 @@
+package com.corebankingsystem.AccountMs.config;
+
+import com.corebankingsystem.AccountMs.client.CircuitBreaker;
+import com.corebankingsystem.AccountMs.client.CustomerClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class CustomerClientConfig {
+
+    // RestTemplate con pool de conexiones y timeouts acotados para no bloquear los hilos de Tomcat
+    public static RestTemplate pooledRestTemplate(int connectTimeoutMs, int readTimeoutMs, int maxConnections) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public CustomerClient customerClient(@Value("${customer.service.base-url:http://localhost:8086}") String baseUrl,
+                                         @Value("${customer.service.connect-timeout-ms:500}") int connectTimeoutMs,
+                                         @Value("${customer.service.read-timeout-ms:2000}") int readTimeoutMs,
+                                         @Value("${customer.service.max-connections:50}") int maxConnections,
+                                         @Value("${customer.service.cache.ttl-seconds:300}") long ttlSeconds,
+                                         @Value("${customer.service.cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                                         @Value("${customer.service.cache.max-size:10000}") long maxSize,
+                                         @Value("${customer.service.circuit.failure-threshold:5}") int failureThreshold,
+                                         @Value("${customer.service.circuit.open-ms:10000}") long openMs) {
+        return new CustomerClient(baseUrl,
+                pooledRestTemplate(connectTimeoutMs, readTimeoutMs, maxConnections),
+                new CircuitBreaker(failureThreshold, openMs),
+                Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(negativeTtlSeconds),
+                maxSize);
+    }
+}
@@ -0,0 +1,42 @@
+package com.corebankingsystem.AccountMs.config;
+
+import com.corebankingsystem.AccountMs.metrics.SqlMetricsInterceptor;
+import com.corebankingsystem.AccountMs.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Las sentencias se cuentan en el DataSource principal (el que usan JPA y JdbcTemplate), no en un
+    // StatementInspector de Hibernate, que no ve el SQL de JdbcTemplate. Vale para una base, replica o shards.
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource) {
+                    return new StatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry)).addPathPatterns("/accounts/**");
+    }
+}
@@ -0,0 +1,73 @@
+package com.corebankingsystem.AccountMs.config;
+
+import com.corebankingsystem.AccountMs.datasource.ReadWriteRoutingDataSource;
+import com.corebankingsystem.AccountMs.datasource.ReplicaPinningFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Replica de lectura opcional: solo se activa si accounts.datasource.replica.url esta definida.
+// El primario sigue configurandose con spring.datasource.*; el replica hereda driver y credenciales
+// salvo que se indiquen en accounts.datasource.replica.*.
+@Configuration
+@ConditionalOnProperty("accounts.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("accounts.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${accounts.datasource.replica.url}") String url,
+                                              @Value("${accounts.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${accounts.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+    }
+
+    // Hibernate devuelve la conexion al terminar cada transaccion en vez de retenerla toda la sesion
+    // (open-in-view), para que cada transaccion vuelva a elegir entre primario y replica
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaPinningFilter replicaPinningFilter(@Value("${accounts.datasource.replica.pin-after-write-ms:2000}") long pinAfterWriteMs,
+                                                     @Value("${accounts.datasource.replica.max-clients:100000}") long maxClients) {
+        return new ReplicaPinningFilter(pinAfterWriteMs, maxClients);
+    }
+}
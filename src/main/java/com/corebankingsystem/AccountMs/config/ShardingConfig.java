@@ -0,0 +1,89 @@
+package com.corebankingsystem.AccountMs.config;
+
+import com.corebankingsystem.AccountMs.datasource.ShardRoutingDataSource;
+import com.corebankingsystem.AccountMs.datasource.ShardSchemaIntegrator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Reparto de cuentas en varias bases: solo se activa si accounts.sharding.shard-urls tiene al menos una URL.
+// El shard 0 es spring.datasource.* (y conserva las cuentas existentes); cada URL de la lista es el shard 1, 2...
+// y hereda driver y credenciales del shard 0. No se combina con la replica de lectura.
+@Configuration
+@ConditionalOnProperty("accounts.sharding.shard-urls")
+public class ShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shard0DataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(@Qualifier("shard0DataSource") DataSource shard0,
+                                                         DataSourceProperties properties,
+                                                         Environment environment,
+                                                         @Value("${accounts.sharding.shard-urls}") String[] shardUrls,
+                                                         @Value("${accounts.sharding.maximum-pool-size:10}") int maximumPoolSize) {
+        if (environment.containsProperty("accounts.datasource.replica.url")) {
+            throw new IllegalStateException("accounts.sharding.shard-urls and accounts.datasource.replica.url cannot be used together");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(shard0);
+        for (String url : shardUrls) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setMaximumPoolSize(maximumPoolSize);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardSchemaIntegrator shardSchemaIntegrator(@Value("${accounts.sharding.shard-urls}") String[] shardUrls) {
+        return new ShardSchemaIntegrator(1 + shardUrls.length);
+    }
+
+    // Igual que con la replica: la conexion se devuelve al terminar cada transaccion para que la siguiente
+    // (quiza de otro shard) vuelva a elegir base aunque la sesion siga abierta (open-in-view)
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateProperties(ShardSchemaIntegrator shardSchemaIntegrator) {
+        return properties -> {
+            properties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> Collections.singletonList(shardSchemaIntegrator));
+        };
+    }
+}
@@ -1,39 +1,97 @@
 package com.corebankingsystem.AccountMs.controller;
 
+import com.corebankingsystem.AccountMs.client.CustomerClient;
+import com.corebankingsystem.AccountMs.coalescing.HotAccountCoalescer;
+import com.corebankingsystem.AccountMs.client.CustomerServiceUnavailableException;
+import com.corebankingsystem.AccountMs.DTO.AccountBalanceDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountImportResultDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountPageDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementResultDTO;
+import com.corebankingsystem.AccountMs.DTO.ChangesPageDTO;
+import com.corebankingsystem.AccountMs.DTO.CustomerSummaryDTO;
 import com.corebankingsystem.AccountMs.DTO.DepositRequestDTO;
+import com.corebankingsystem.AccountMs.DTO.EndOfDayStatusDTO;
+import com.corebankingsystem.AccountMs.DTO.ErrorResponseDTO;
+import com.corebankingsystem.AccountMs.DTO.TransferRequestDTO;
 import com.corebankingsystem.AccountMs.DTO.WithdrawalRequestDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.endofday.EndOfDayJob;
+import com.corebankingsystem.AccountMs.model.Money;
 import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.outbox.ChangeFeed;
 import com.corebankingsystem.AccountMs.service.AccountService;
+import com.corebankingsystem.AccountMs.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/accounts/")
 public class AccountController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String SUB_CENT_MESSAGE = "Invalid amount. Amounts can have at most 2 decimal places.";
 
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private CustomerClient customerClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private HotAccountCoalescer hotAccountCoalescer;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private EndOfDayJob endOfDayJob;
+
+    @Value("${accounts.batch.max-items:1000}")
+    private int batchMaxItems;
+
     @PostMapping
     public ResponseEntity<Object> createAccount(@Valid @RequestBody Account account) {
 
         try {
-            String url = "http://localhost:8086/customers/" + account.getCustomerId() ;
-            restTemplate.getForObject(url, String.class);
-        } catch (HttpClientErrorException e) {
-            String message = "The customer ID does not exist ";
-            return ResponseEntity.status(404).body(message);
-        } catch (Exception e) {
-            // Manejo de otros errores posibles (por ejemplo, problemas de conexión o servicio caído)
+            if (!customerClient.customerExists(account.getCustomerId())) {
+                String message = "The customer ID does not exist ";
+                return ResponseEntity.status(404).body(message);
+            }
+        } catch (CustomerServiceUnavailableException e) {
+            // Servicio de clientes caido, lento o con el circuito abierto
             String errorMessage = "An error occurred while validating the customer ID";
             return ResponseEntity.status(500).body(errorMessage); // 500 Internal Server Error
         }
@@ -51,20 +109,68 @@ public class AccountController {
         return ResponseEntity.status(200).body(accounts);
     }
 
+    // Listado paginado por cursor: ?limit=100&after={nextCursor}
+    @GetMapping(params = "limit")
+    public ResponseEntity<AccountPageDTO> getAccountsPage(@RequestParam int limit,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Account.TypeAccount typeAccount,
+                                                          @RequestParam(required = false) Long customerId) {
+        AccountPageDTO page = accountService.getAccountsPage(after, limit, typeAccount, customerId);
+        return ResponseEntity.status(200).body(page);
+    }
+
+    // Listado completo en NDJSON (una cuenta por linea), la memoria no crece con el tamaño de la tabla
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAccounts(@RequestParam(required = false) Account.TypeAccount typeAccount,
+                                                                @RequestParam(required = false) Long customerId) {
+        ObjectWriter writer = objectMapper.writerFor(Account.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = (OutputStream out) -> accountService.streamAccounts(typeAccount, customerId, account -> {
+            try {
+                writer.writeValue(out, account);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Account> getAccountId(@PathVariable Long id) {
         Optional<Account> account = accountService.getAccountId(id);
         return account.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Estado de cuenta entre dos fechas (incluidas, UTC), emitido en streaming
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(@PathVariable Long id,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (accountService.getAccountId(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Instant start = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        long openingBalance = accountService.getBalanceBefore(id, start);
+        StatementWriter writer = new StatementWriter(accountService, objectMapper.getFactory());
+        StreamingResponseBody body = (OutputStream out) -> writer.write(out, id, start, end, openingBalance);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PutMapping("/{id}/deposit")
-    public ResponseEntity<Object> deposit(@PathVariable Long id, @RequestParam Double amount) {
-        return accountService.deposit(id, amount);
+    public ResponseEntity<Object> deposit(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        if (!Money.isExactMinor(amount)) {
+            return ResponseEntity.status(400).body(SUB_CENT_MESSAGE);
+        }
+        return accountService.deposit(id, Money.toMinor(amount));
     }
 
     @PutMapping("/{id}/withdraw")
-    public ResponseEntity<Object> withdraw(@PathVariable Long id, @RequestParam Double amount) {
-        return accountService.withdraw(id, amount);
+    public ResponseEntity<Object> withdraw(@PathVariable Long id, @RequestParam BigDecimal amount) {
+        if (!Money.isExactMinor(amount)) {
+            return ResponseEntity.status(400).body(SUB_CENT_MESSAGE);
+        }
+        return accountService.withdraw(id, Money.toMinor(amount));
     }
 
     @DeleteMapping("/{id}")
@@ -79,43 +185,165 @@ public class AccountController {
         return account.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Numero de cuentas y saldo total por tipo de cuenta del cliente, agregados en la base de datos
+    @GetMapping("/customer/{id}/summary")
+    public ResponseEntity<CustomerSummaryDTO> getCustomerSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(accountService.getCustomerSummary(id));
+    }
+
     //GET endpoint to retrieve account details by account number received from TransactionMS
+    //Responde AccountBalanceDTO en JSON o, con Accept: application/cbor, en CBOR
     @GetMapping("/byAccountNumber/{accountNumber}")
-    public ResponseEntity<Account> getAccountByNumber(@PathVariable String accountNumber) {
+    public ResponseEntity<AccountBalanceDTO> getAccountByNumber(@PathVariable String accountNumber) {
         Optional<Account> account = accountService.getAccountByNumber(accountNumber);
         if (account.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(account.get());
+        return ResponseEntity.ok(AccountBalanceDTO.from(account.get()));
     }
     //POST endpoint to receive deposit information from TransactionMS and process deposit in the specified account
+    //Con la cabecera Idempotency-Key un reintento devuelve la respuesta original sin volver a depositar.
+    //La clave se guarda en el shard de la cuenta, por eso el shard se fija antes de abrir su transaccion
     @PostMapping("/tDeposit")
-    public ResponseEntity<?> tDeposit(@RequestBody DepositRequestDTO depositRequestDTO) {
-        Optional<Account> accountD = accountService.getAccountByNumber(depositRequestDTO.getAccountNumber());
-        if (accountD.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        long id = accountD.get().getId();
-        ResponseEntity<Object> updatedAccount = accountService.deposit(id, depositRequestDTO.getAmount());
-        if (updatedAccount == null) {
-            return ResponseEntity.badRequest().build();
-        }
-        return ResponseEntity.ok(updatedAccount);
+    public ResponseEntity<?> tDeposit(@RequestBody DepositRequestDTO depositRequestDTO,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String fingerprint = "tDeposit:" + depositRequestDTO.getAccountNumber() + ":" + depositRequestDTO.getAmount();
+        ResponseEntity<Object> updatedAccount = shardRouter.onAccountNumber(depositRequestDTO.getAccountNumber(), () -> idempotencyService.execute(idempotencyKey, fingerprint, () -> {
+            Optional<Long> accountId = accountService.getAccountIdByNumber(depositRequestDTO.getAccountNumber());
+            if (accountId.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (hotAccountCoalescer.accepts(depositRequestDTO.getAccountNumber(), depositRequestDTO.getAmount())) {
+                return hotAccountCoalescer.deposit(accountId.get(), depositRequestDTO.getAmount());
+            }
+            return accountService.deposit(accountId.get(), depositRequestDTO.getAmount());
+        }));
+        return toTransactionResponse(updatedAccount);
     }
 
     //POST endpoint to receive deposit information from TransactionMS and process Withdrawal in the specified account
     @PostMapping("/tWithdrawal")
-    public ResponseEntity<?> tWithdrawal(@RequestBody WithdrawalRequestDTO withdrawalRequestDTO) {
-        Optional<Account> accountD = accountService.getAccountByNumber(withdrawalRequestDTO.getAccountNumber());
-        if (accountD.isEmpty()) {
+    public ResponseEntity<?> tWithdrawal(@RequestBody WithdrawalRequestDTO withdrawalRequestDTO,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        String fingerprint = "tWithdrawal:" + withdrawalRequestDTO.getAccountNumber() + ":" + withdrawalRequestDTO.getAmount();
+        ResponseEntity<Object> updatedAccount = shardRouter.onAccountNumber(withdrawalRequestDTO.getAccountNumber(), () -> idempotencyService.execute(idempotencyKey, fingerprint, () -> {
+            Optional<Long> accountId = accountService.getAccountIdByNumber(withdrawalRequestDTO.getAccountNumber());
+            if (accountId.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (hotAccountCoalescer.accepts(withdrawalRequestDTO.getAccountNumber(), withdrawalRequestDTO.getAmount())) {
+                return hotAccountCoalescer.withdraw(accountId.get(), withdrawalRequestDTO.getAmount());
+            }
+            return accountService.withdraw(accountId.get(), withdrawalRequestDTO.getAmount());
+        }));
+        return toTransactionResponse(updatedAccount);
+    }
+
+    // Respuesta para TransactionMS: el estado real de la operacion y la cuenta reducida a AccountBalanceDTO,
+    // en lugar del ResponseEntity anidado con la entidad completa. Los mensajes de error (400/422) van en
+    // ErrorResponseDTO: un String se escribiria como texto plano aunque el cliente haya pedido CBOR
+    private static ResponseEntity<?> toTransactionResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().value() == 404) {
             return ResponseEntity.notFound().build();
         }
-        long id = accountD.get().getId();
-        ResponseEntity<Object> updatedAccount = accountService.withdraw(id, withdrawalRequestDTO.getAmount());
-        if (updatedAccount == null) {
-            return ResponseEntity.badRequest().build();
+        Object body = response.getBody();
+        if (body instanceof Account) {
+            body = AccountBalanceDTO.from((Account) body);
+        } else if (body instanceof String) {
+            body = new ErrorResponseDTO((String) body);
+        }
+        return ResponseEntity.status(response.getStatusCode()).body(body);
+    }
+
+    //POST endpoint to move money between two accounts in a single transaction (replaces tWithdrawal + tDeposit)
+    @PostMapping("/transfer")
+    public ResponseEntity<Object> transfer(@RequestBody TransferRequestDTO transferRequestDTO,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (transferRequestDTO.getSourceAccountNumber() == null || transferRequestDTO.getTargetAccountNumber() == null) {
+            String message = "sourceAccountNumber and targetAccountNumber are required";
+            return ResponseEntity.status(400).body(message);
+        }
+        if (shardRouter.shardOfAccountNumber(transferRequestDTO.getSourceAccountNumber())
+                != shardRouter.shardOfAccountNumber(transferRequestDTO.getTargetAccountNumber())) {
+            String message = "Transfers between accounts on different shards are not supported.";
+            return ResponseEntity.status(422).body(message);
+        }
+        String fingerprint = "transfer:" + transferRequestDTO.getSourceAccountNumber() + ":"
+                + transferRequestDTO.getTargetAccountNumber() + ":" + transferRequestDTO.getAmount();
+        return shardRouter.onAccountNumber(transferRequestDTO.getSourceAccountNumber(), () -> idempotencyService.execute(idempotencyKey, fingerprint, () -> {
+            Optional<Long> sourceId = accountService.getAccountIdByNumber(transferRequestDTO.getSourceAccountNumber());
+            Optional<Long> targetId = accountService.getAccountIdByNumber(transferRequestDTO.getTargetAccountNumber());
+            if (sourceId.isEmpty() || targetId.isEmpty()) {
+                return ResponseEntity.status(404).body("The account number does not exist");
+            }
+            return accountService.transfer(sourceId.get(), targetId.get(), transferRequestDTO.getAmount());
+        }));
+    }
+
+    //POST endpoint to receive many deposits/withdrawals from TransactionMS and apply them in a single transaction
+    @PostMapping("/tBatch")
+    public ResponseEntity<Object> tBatch(@RequestBody List<BatchMovementDTO> movements) {
+        if (movements.size() > batchMaxItems) {
+            String message = "A batch can contain at most " + batchMaxItems + " movements";
+            return ResponseEntity.status(400).body(message);
+        }
+        List<BatchMovementResultDTO> results = accountService.applyBatch(movements);
+        return ResponseEntity.ok(results);
+    }
+
+    // Apertura masiva de cuentas (migraciones de cartera): CSV customerId,typeAccount,balance o NDJSON.
+    // El cuerpo se lee en streaming; la respuesta informa los errores por numero de linea.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<AccountImportResultDTO> importAccounts(@RequestHeader("Content-Type") String contentType,
+                                                                 Reader body) throws IOException {
+        AccountImportResultDTO result = accountService.importAccounts(body, MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(result);
+    }
+
+    // Feed de cambios (alta, saldo, baja) a partir del outbox: long-poll de hasta waitMs si no hay eventos
+    // despues del cursor. Reemplaza el sondeo de GET /accounts/{id} por parte de otros servicios
+    @GetMapping("/changes")
+    public DeferredResult<ChangesPageDTO> getChanges(@RequestParam(defaultValue = "0") String after,
+                                                     @RequestParam(defaultValue = "100") int limit,
+                                                     @RequestParam(defaultValue = "30000") long waitMs) {
+        return changeFeed.poll(after, limit, waitMs);
+    }
+
+    //POST endpoint to launch the end-of-day interest and fee run (default: yesterday); it runs in the background.
+    //Relanzar una fecha ya cerrada solo procesa los bloques sin punto de control; una fecha posterior a ayer
+    //abonaria intereses por adelantado y se rechaza con 400
+    @PostMapping("/eod/run")
+    public ResponseEntity<Object> runEndOfDay(@RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate lastClosable = endOfDayJob.previousBusinessDate();
+        if (date != null && date.isAfter(lastClosable)) {
+            String message = "The business date cannot be later than " + lastClosable;
+            return ResponseEntity.status(400).body(message);
+        }
+        LocalDate businessDate = date != null ? date : lastClosable;
+        if (!endOfDayJob.start(businessDate)) {
+            return ResponseEntity.status(409).body(endOfDayJob.getStatus());
         }
-        return ResponseEntity.ok(updatedAccount);
+        return ResponseEntity.status(202).body(endOfDayJob.getStatus());
+    }
+
+    // Progreso del ultimo cierre diario: bloques, cuentas, importes y cuentas por segundo
+    @GetMapping("/eod/status")
+    public ResponseEntity<EndOfDayStatusDTO> getEndOfDayStatus() {
+        return ResponseEntity.ok(endOfDayJob.getStatus());
+    }
+
+    // Metricas de la cache de cuentas por numero (aciertos, fallos y tamaño)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(accountService.getCacheStats());
+    }
+
+    // Conflicto de version en una ruta que modifica la entidad completa
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLock(ObjectOptimisticLockingFailureException e) {
+        String message = "The account was modified concurrently, please retry the operation";
+        return ResponseEntity.status(409).body(message);
     }
 
 }
@@ -0,0 +1,62 @@
+package com.corebankingsystem.AccountMs.controller;
+
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+// Escribe el estado de cuenta como JSON a medida que se leen los movimientos,
+// calculando el saldo acumulado de cada linea a partir del saldo de apertura
+final class StatementWriter {
+
+    private final AccountService accountService;
+    private final JsonFactory jsonFactory;
+
+    StatementWriter(AccountService accountService, JsonFactory jsonFactory) {
+        this.accountService = accountService;
+        this.jsonFactory = jsonFactory;
+    }
+
+    void write(OutputStream out, Long accountId, Instant from, Instant to, long openingBalance) throws IOException {
+        JsonGenerator gen = jsonFactory.createGenerator(out);
+        gen.writeStartObject();
+        gen.writeNumberField("accountId", accountId);
+        gen.writeStringField("from", from.toString());
+        gen.writeStringField("to", to.toString());
+        gen.writeFieldName("openingBalance");
+        gen.writeNumber(Money.format(openingBalance));
+        gen.writeArrayFieldStart("movements");
+        long[] balance = {openingBalance};
+        accountService.streamStatement(accountId, from, to, movement -> {
+            balance[0] = Money.add(balance[0], movement.getAmount());
+            writeMovement(gen, movement, balance[0]);
+        });
+        gen.writeEndArray();
+        gen.writeFieldName("closingBalance");
+        gen.writeNumber(Money.format(balance[0]));
+        gen.writeEndObject();
+        gen.flush();
+    }
+
+    private void writeMovement(JsonGenerator gen, AccountMovement movement, long balance) {
+        try {
+            gen.writeStartObject();
+            gen.writeNumberField("id", movement.getId());
+            gen.writeStringField("type", movement.getType().name());
+            gen.writeFieldName("amount");
+            gen.writeNumber(Money.format(movement.getAmount()));
+            gen.writeFieldName("balance");
+            gen.writeNumber(Money.format(balance));
+            gen.writeStringField("createdAt", movement.getCreatedAt().toString());
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Elige el pool al pedir la conexion. Debe ir detras de un LazyConnectionDataSourceProxy: el gestor de
+// transacciones pide la conexion antes de marcar la transaccion como readOnly, y el proxy retrasa la
+// eleccion hasta la primera sentencia.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaRouting.routeToReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,57 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Tolerancia al retraso del replica: un cliente que acaba de escribir lee del primario durante pin-after-write-ms,
+// asi ve sus propios cambios aunque el replica aun no los tenga. El cliente se identifica con la cabecera
+// X-Client-Id o, si no viene, con la direccion remota.
+public class ReplicaPinningFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaPinningFilter(long pinAfterWriteMs, long maxClients) {
+        if (pinAfterWriteMs > 0) {
+            this.recentWriters = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMillis(pinAfterWriteMs))
+                    .maximumSize(maxClients)
+                    .build();
+        } else {
+            this.recentWriters = null;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        ReplicaRouting.reset();
+        ReplicaRouting.pinToPrimary(recentWriters != null && recentWriters.getIfPresent(client) != null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (recentWriters != null && ReplicaRouting.wrote()) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+            ReplicaRouting.reset();
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isEmpty()) {
+            return clientId;
+        }
+        return request.getRemoteAddr();
+    }
+}
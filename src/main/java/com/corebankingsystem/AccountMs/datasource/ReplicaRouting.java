@@ -0,0 +1,58 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Estado por hilo del enrutado lectura/escritura: si la peticion esta fijada al primario, si ya escribio
+// y si la ultima lectura se sirvio desde el replica
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<boolean[]> STATE = ThreadLocal.withInitial(() -> new boolean[3]);
+    private static final int PINNED = 0;
+    private static final int WROTE = 1;
+    private static final int REPLICA_READ = 2;
+
+    private ReplicaRouting() {
+    }
+
+    // Solo las transacciones readOnly de un cliente no fijado van al replica; todo lo demas al primario
+    static boolean routeToReplica() {
+        boolean[] state = STATE.get();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && !state[PINNED]) {
+            state[REPLICA_READ] = true;
+            return true;
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            state[WROTE] = true;
+        }
+        return false;
+    }
+
+    public static void pinToPrimary(boolean pinned) {
+        STATE.get()[PINNED] = pinned;
+    }
+
+    // Escritura hecha en otro hilo por cuenta de la peticion actual (p. ej. un lote agrupado)
+    public static void recordWrite() {
+        STATE.get()[WROTE] = true;
+    }
+
+    public static boolean wrote() {
+        return STATE.get()[WROTE];
+    }
+
+    public static void clearReplicaRead() {
+        STATE.get()[REPLICA_READ] = false;
+    }
+
+    public static boolean replicaRead() {
+        return STATE.get()[REPLICA_READ];
+    }
+
+    public static void reset() {
+        boolean[] state = STATE.get();
+        state[PINNED] = false;
+        state[WROTE] = false;
+        state[REPLICA_READ] = false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// Shard activo del hilo actual. ShardRoutingDataSource lo consulta al abrir cada conexion fisica;
+// sin shard fijado se usa el shard 0 (la base de spring.datasource.*).
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    // Ejecuta el trabajo con el shard fijado y restaura el anterior al terminar. Para trabajo que abre
+    // sus propias transacciones (o ninguna): las conexiones se piden dentro del bloque.
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // Fija el shard dentro de un metodo @Transactional. El flush y el commit ocurren despues de que el
+    // metodo retorne, asi que el shard se restaura al completar la transaccion y no al salir del metodo.
+    // Una transaccion ya fijada a otro shard no puede cambiar: su conexion pertenece a esa base.
+    static void bind(int shard) {
+        Integer previous = CURRENT.get();
+        if (previous != null && previous == shard) {
+            return;
+        }
+        if (previous != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("The transaction is bound to shard " + previous + " and cannot use shard " + shard);
+        }
+        CURRENT.set(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    restore(previous);
+                }
+            });
+        }
+    }
+
+    private static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
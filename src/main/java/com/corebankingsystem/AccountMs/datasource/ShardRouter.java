@@ -0,0 +1,184 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Reparto horizontal de cuentas por customerId. Cada cuenta vive en el shard floorMod(customerId, N) y
+// lleva el shard en sus identificadores, asi que una operacion por id o por numero de cuenta va directa
+// a su base sin consultar un directorio:
+//  - id: los 16 bits altos son el shard (el shard 0 conserva los ids existentes)
+//  - numero de cuenta: los dos primeros digitos son el shard, antes del digito verificador
+// Con accounts.sharding.shard-urls vacio hay un solo shard y todos los metodos son transparentes.
+// Como mucho MAX_SHARDS (10) shards: los numeros anteriores al reparto empiezan por 10..99 y nunca deben
+// parecer un shard valido, y con el shard en los bits 48+ los ids siguen por debajo de 2^53 (exactos en JSON/JS).
+@Component
+public class ShardRouter {
+
+    public static final int ID_SHARD_SHIFT = 48;
+    static final int MAX_SHARDS = 10;
+
+    private final int shardCount;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(@Value("${accounts.sharding.shard-urls:}") String[] shardUrls) {
+        this.shardCount = 1 + shardUrls.length;
+        if (shardCount > MAX_SHARDS) {
+            throw new IllegalStateException("At most " + MAX_SHARDS + " shards are supported (shard 0 plus "
+                    + (MAX_SHARDS - 1) + " accounts.sharding.shard-urls), found " + shardCount);
+        }
+        this.fanOutExecutor = isEnabled() ? Executors.newFixedThreadPool(shardCount, fanOutThreads()) : null;
+    }
+
+    public boolean isEnabled() {
+        return shardCount > 1;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(long customerId) {
+        return isEnabled() ? Math.floorMod(customerId, shardCount) : 0;
+    }
+
+    // Un id fuera de rango no pertenece a ningun shard: se busca en el 0 y simplemente no se encuentra
+    public int shardOfId(Long accountId) {
+        if (!isEnabled() || accountId == null || accountId < 0) {
+            return 0;
+        }
+        long shard = accountId >>> ID_SHARD_SHIFT;
+        return shard < shardCount ? (int) shard : 0;
+    }
+
+    // Los numeros emitidos antes del reparto (10 digitos desde 1000000000, o los aleatorios de 6 digitos)
+    // empiezan por 10..99, que nunca es un shard valido con MAX_SHARDS, asi que siguen en el shard 0
+    public int shardOfAccountNumber(String accountNumber) {
+        if (!isEnabled() || accountNumber == null || accountNumber.length() < 3
+                || !Character.isDigit(accountNumber.charAt(0)) || !Character.isDigit(accountNumber.charAt(1))) {
+            return 0;
+        }
+        int shard = Integer.parseInt(accountNumber.substring(0, 2));
+        return shard < shardCount ? shard : 0;
+    }
+
+    public String accountNumberPrefix(int shard) {
+        return isEnabled() ? String.format("%02d", shard) : "";
+    }
+
+    public static long firstId(int shard) {
+        return (long) shard << ID_SHARD_SHIFT;
+    }
+
+    public int currentShard() {
+        Integer shard = ShardContext.current();
+        return isEnabled() && shard != null ? shard : 0;
+    }
+
+    // Para la primera linea de un metodo @Transactional, antes de cualquier sentencia
+    public void bindCustomer(long customerId) {
+        bindShard(shardForCustomer(customerId));
+    }
+
+    public void bindAccount(Long accountId) {
+        bindShard(shardOfId(accountId));
+    }
+
+    public void bindAccountNumber(String accountNumber) {
+        bindShard(shardOfAccountNumber(accountNumber));
+    }
+
+    public void bindShard(int shard) {
+        if (isEnabled()) {
+            ShardContext.bind(shard);
+        }
+    }
+
+    // Para trabajo fuera de una transaccion del servicio (lecturas sin transaccion, o una transaccion
+    // que se abre mas adentro, como la del registro de idempotencia)
+    public <T> T onAccount(Long accountId, Supplier<T> work) {
+        return onShard(shardOfId(accountId), work);
+    }
+
+    public <T> T onAccountNumber(String accountNumber, Supplier<T> work) {
+        return onShard(shardOfAccountNumber(accountNumber), work);
+    }
+
+    public <T> T onCustomer(long customerId, Supplier<T> work) {
+        return onShard(shardForCustomer(customerId), work);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return isEnabled() ? ShardContext.on(shard, work) : work.get();
+    }
+
+    // Recorre los shards en orden, uno detras de otro; como el shard ocupa los bits altos del id,
+    // el resultado conserva el orden global por id
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (!isEnabled()) {
+            return Collections.singletonList(work.get());
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(ShardContext.on(shard, work));
+        }
+        return results;
+    }
+
+    // Consulta global: el mismo trabajo en todos los shards a la vez, un hilo por shard. El trabajo no debe
+    // depender de la transaccion del llamador (cada hilo abre la suya). Resultados en orden de shard.
+    public <T> List<T> fanOut(Supplier<T> work) {
+        if (!isEnabled()) {
+            return Collections.singletonList(work.get());
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(fanOutExecutor.submit(() -> ShardContext.on(target, work)));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory fanOutThreads() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-fanout-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
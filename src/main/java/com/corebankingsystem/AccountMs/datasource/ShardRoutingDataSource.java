@@ -0,0 +1,46 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Elige la base del shard fijado en ShardContext. Igual que ReadWriteRoutingDataSource debe ir detras de un
+// LazyConnectionDataSourceProxy: la transaccion se abre antes de que el servicio fije el shard, y el proxy
+// retrasa la eleccion hasta la primera sentencia.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = new ArrayList<>(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    // El shard 0 es un bean propio y Spring lo cierra; los pools del resto solo existen aqui
+    @Override
+    public void close() {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            DataSource dataSource = shards.get(shard);
+            if (dataSource instanceof HikariDataSource) {
+                ((HikariDataSource) dataSource).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Hibernate solo aplica spring.jpa.hibernate.ddl-auto sobre la conexion por defecto (shard 0). Este integrador
+// repite la misma accion (create, create-drop, update, validate) en cada shard adicional con su conexion fijada.
+// La fila de id_block de cada shard la crea ShardedIdGenerator con la primera cuenta.
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+    private final Map<Integer, DelayedDropAction> dropActions = new HashMap<>();
+    private ServiceRegistry serviceRegistry;
+
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        serviceRegistry = bootstrapContext.getServiceRegistry();
+        Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        for (int shard = 1; shard < shardCount; shard++) {
+            int target = shard;
+            ShardContext.on(target, () -> {
+                SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings,
+                        action -> dropActions.put(target, action));
+                return null;
+            });
+        }
+    }
+
+    // create-drop: el shard 0 lo borra Hibernate al cerrar; el resto se borra aqui
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry sessionFactoryServiceRegistry) {
+        dropActions.forEach((shard, action) -> ShardContext.on(shard, () -> {
+            action.perform(serviceRegistry);
+            return null;
+        }));
+        dropActions.clear();
+    }
+}
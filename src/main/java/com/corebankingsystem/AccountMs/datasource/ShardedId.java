@@ -0,0 +1,19 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id generado por ShardedIdGenerator: bloques reservados en la fila "name" de id_block del shard activo
+@IdGeneratorType(ShardedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+
+    String name();
+
+    int blockSize() default 100;
+}
@@ -0,0 +1,115 @@
+package com.corebankingsystem.AccountMs.datasource;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.jdbc.AbstractReturningWork;
+
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Generador hi/lo con un bloque en memoria por shard. El optimizador pooled de Hibernate guarda un unico
+// bloque por generador y lo compartia entre shards, asi que una cuenta del shard 2 podia recibir un id del
+// rango del shard 0. Aqui el bloque se reserva en id_block del shard fijado en el hilo (la conexion aislada
+// sale del mismo DataSource con enrutado) y cada id lleva el shard en sus 16 bits altos.
+// La fila sigue el criterio del optimizador pooled: next_value queda un bloque por encima del ultimo id
+// entregado, asi que las bases sembradas con docs/migration account id block.sql siguen siendo validas.
+public class ShardedIdGenerator implements IdentifierGenerator {
+
+    private static final long OFFSET_MASK = (1L << ShardRouter.ID_SHARD_SHIFT) - 1;
+
+    private final String name;
+    private final long blockSize;
+    private final ConcurrentMap<Integer, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public ShardedIdGenerator(ShardedId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.name = config.name();
+        this.blockSize = config.blockSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Integer current = ShardContext.current();
+        int shard = current != null ? current : 0;
+        AtomicReference<Block> holder = blocks.computeIfAbsent(shard, key -> new AtomicReference<>(new Block(0L, 0L)));
+        while (true) {
+            Block block = holder.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return ShardRouter.firstId(shard) | (value & OFFSET_MASK);
+            }
+            refill(session, holder, block);
+        }
+    }
+
+    // ReentrantLock y no synchronized, igual que AccountNumberAllocator: la reserva hace JDBC
+    private void refill(SharedSessionContractImplementor session, AtomicReference<Block> holder, Block exhausted) {
+        refillLock.lock();
+        try {
+            if (holder.get() == exhausted) {
+                long last = session.getTransactionCoordinator().createIsolationDelegate()
+                        .delegateWork(new ReserveWork(), true);
+                holder.set(new Block(last - blockSize + 1, last + 1));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    // Reserva en su propia transaccion y devuelve el ultimo id del bloque. Sin fila (shard nuevo) empieza en 1
+    private final class ReserveWork extends AbstractReturningWork<Long> {
+        @Override
+        public Long execute(Connection connection) throws SQLException {
+            if (increment(connection) == 0) {
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO id_block (name, next_value) VALUES (?, ?)")) {
+                    insert.setString(1, name);
+                    insert.setLong(2, 2 * blockSize);
+                    insert.executeUpdate();
+                    return blockSize;
+                } catch (SQLException e) {
+                    // Otro nodo creo la fila al mismo tiempo: ahora ya existe
+                    if (increment(connection) == 0) {
+                        throw e;
+                    }
+                }
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT next_value FROM id_block WHERE name = ?")) {
+                select.setString(1, name);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new HibernateException("id_block row " + name + " disappeared while reserving ids");
+                    }
+                    return rs.getLong(1) - blockSize;
+                }
+            }
+        }
+
+        private int increment(Connection connection) throws SQLException {
+            try (PreparedStatement update = connection.prepareStatement("UPDATE id_block SET next_value = next_value + ? WHERE name = ?")) {
+                update.setLong(1, blockSize);
+                update.setString(2, name);
+                return update.executeUpdate();
+            }
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
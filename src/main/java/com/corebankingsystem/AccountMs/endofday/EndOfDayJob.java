@@ -0,0 +1,465 @@
+package com.corebankingsystem.AccountMs.endofday;
+
+import com.corebankingsystem.AccountMs.DTO.EndOfDayStatusDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
+import com.corebankingsystem.AccountMs.repository.AccountBatchRepository;
+import com.corebankingsystem.AccountMs.repository.EndOfDayRepository;
+import com.corebankingsystem.AccountMs.service.impl.AccountCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cierre diario: abona el interes diario a las cuentas de ahorros con saldo positivo y cobra la comision de
+// sobregiro a las corrientes en negativo. Un hilo recorre account por keyset (solo ids de cuentas candidatas)
+// y reparte bloques de accounts.eod.chunk-size entre accounts.eod.workers hilos. Cada bloque es una transaccion
+// corta: bloquea sus filas en orden de id (igual que transferencias y lotes), recalcula con el saldo actual,
+// escribe saldos y diario con JDBC batch y guarda su punto de control (eod_chunk). Relanzar la misma fecha
+// salta los bloques ya confirmados, asi que tras una caida el cierre continua donde se quedo. Dos cierres de la
+// misma fecha a la vez (varios nodos con la planificacion activa) tampoco aplican una cuenta dos veces: cada
+// bloque vuelve a mirar los puntos de control despues de bloquear sus filas.
+@Component
+public class EndOfDayJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EndOfDayJob.class);
+
+    private final EndOfDayRepository endOfDayRepository;
+    private final AccountBatchRepository accountBatchRepository;
+    private final AccountCache accountCache;
+    private final OutboxWriter outboxWriter;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final BigDecimal annualRatePercent;
+    private final long daysInYear;
+    private final long overdraftFee;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor coordinator;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer chunkTimer;
+
+    public EndOfDayJob(EndOfDayRepository endOfDayRepository,
+                       AccountBatchRepository accountBatchRepository,
+                       AccountCache accountCache,
+                       OutboxWriter outboxWriter,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${accounts.eod.enabled:false}") boolean enabled,
+                       @Value("${accounts.eod.zone:UTC}") String zone,
+                       @Value("${accounts.eod.savings-annual-rate-percent:1.50}") BigDecimal annualRatePercent,
+                       @Value("${accounts.eod.days-in-year:365}") long daysInYear,
+                       @Value("${accounts.eod.overdraft-fee:5.00}") String overdraftFee,
+                       @Value("${accounts.eod.chunk-size:500}") int chunkSize,
+                       @Value("${accounts.eod.workers:2}") int workers) {
+        this.endOfDayRepository = endOfDayRepository;
+        this.accountBatchRepository = accountBatchRepository;
+        this.accountCache = accountCache;
+        this.outboxWriter = outboxWriter;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.zone = ZoneId.of(zone);
+        this.annualRatePercent = annualRatePercent;
+        this.daysInYear = daysInYear;
+        this.overdraftFee = Money.parseMinor(overdraftFee);
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = workers * 2;
+        this.workers = newPool(workers, "eod-worker-");
+        this.coordinator = newPool(1, "eod-coordinator-");
+        this.meterRegistry = meterRegistry;
+
+        meterRegistry.gauge("accounts.eod.running", running, flag -> flag.get() ? 1 : 0);
+        this.chunkTimer = Timer.builder("accounts.eod.chunk")
+                .description("Duration of one end-of-day chunk transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Cierra el dia anterior en la zona configurada; si sigue en marcha el de ayer no se lanza otro
+    @Scheduled(cron = "${accounts.eod.cron:0 30 0 * * *}", zone = "${accounts.eod.zone:UTC}")
+    public void scheduledRun() {
+        if (enabled && !start(previousBusinessDate())) {
+            log.warn("End-of-day run skipped: the previous run is still in progress");
+        }
+    }
+
+    public LocalDate previousBusinessDate() {
+        return LocalDate.now(zone).minusDays(1);
+    }
+
+    // Lanza el cierre en segundo plano; false si ya hay uno en curso
+    public boolean start(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Progress started = new Progress(businessDate);
+        progress = started;
+        try {
+            coordinator.execute(() -> {
+                try {
+                    execute(started);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            started.finish(EndOfDayStatusDTO.State.FAILED);
+            throw e;
+        }
+        return true;
+    }
+
+    // Cierre en el hilo llamador, hasta terminar todos los bloques
+    public EndOfDayStatusDTO run(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An end-of-day run is already in progress");
+        }
+        try {
+            Progress started = new Progress(businessDate);
+            progress = started;
+            execute(started);
+            return started.toStatus();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public EndOfDayStatusDTO getStatus() {
+        Progress current = progress;
+        if (current == null) {
+            return new EndOfDayStatusDTO(null, EndOfDayStatusDTO.State.IDLE, null, null, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return current.toStatus();
+    }
+
+    private void execute(Progress progress) {
+        try {
+            shardRouter.onEachShard(() -> {
+                runShard(progress);
+                return null;
+            });
+            progress.finish(progress.failedChunks.get() == 0 ? EndOfDayStatusDTO.State.COMPLETED : EndOfDayStatusDTO.State.FAILED);
+        } catch (RuntimeException e) {
+            log.error("End-of-day run for {} failed", progress.businessDate, e);
+            progress.finish(EndOfDayStatusDTO.State.FAILED);
+        }
+        log.info("End-of-day run for {} finished: {} chunks, {} skipped, {} failed, {} accounts",
+                progress.businessDate, progress.chunks.get(), progress.skippedChunks.get(),
+                progress.failedChunks.get(), progress.accounts.get());
+    }
+
+    // El recorrido solo avanza mientras haya hueco: como mucho maxPendingChunks bloques esperando o en curso,
+    // asi la memoria no crece con el tamano de la tabla y los trabajadores marcan el ritmo
+    private void runShard(Progress progress) {
+        int shard = shardRouter.currentShard();
+        TreeMap<Long, Long> completed = mergeRanges(endOfDayRepository.findCompletedRanges(progress.businessDate));
+        Semaphore slots = new Semaphore(maxPendingChunks);
+        long afterId = 0L;
+        List<Long> ids;
+        while (!(ids = endOfDayRepository.findCandidateIds(afterId, chunkSize)).isEmpty()) {
+            long chunkAfterId = afterId;
+            long lastId = ids.get(ids.size() - 1);
+            List<Long> pending = withoutCompleted(ids, completed);
+            if (pending.isEmpty()) {
+                progress.skippedChunks.incrementAndGet();
+                chunks("skipped").increment();
+            } else {
+                slots.acquireUninterruptibly();
+                try {
+                    workers.execute(new ChunkTask(progress, shard, chunkAfterId, lastId, pending, slots));
+                } catch (RejectedExecutionException e) {
+                    // Apagado en curso: se espera a los bloques ya enviados y el resto queda para el siguiente cierre
+                    slots.release();
+                    slots.acquireUninterruptibly(maxPendingChunks);
+                    throw e;
+                }
+            }
+            afterId = lastId;
+        }
+        slots.acquireUninterruptibly(maxPendingChunks);
+    }
+
+    private Void processChunk(Progress progress, long afterId, long lastId, List<Long> ids) {
+        long started = System.nanoTime();
+        // Totales del bloque: cuentas con interes, cuentas con comision, interes y comisiones
+        long[] totals = transactionTemplate.execute(status -> {
+            List<Account> locked = accountBatchRepository.lockByIds(ids);
+            // Otro cierre de la misma fecha (otro nodo, o un POST manual) pudo aplicar estas cuentas entre el
+            // recorrido y el bloqueo. Los bloqueos serializan los bloques que se solapan, asi que releer aqui los
+            // puntos de control ve el del bloque que tenia las filas; se descartan las cuentas ya cubiertas.
+            // Es la primera lectura no bloqueante de la transaccion, por lo que en InnoDB ya ve lo confirmado.
+            TreeMap<Long, Long> completed = mergeRanges(endOfDayRepository.findCompletedRanges(progress.businessDate, afterId, lastId));
+            Instant now = Instant.now();
+            List<Account> changed = new ArrayList<>();
+            List<AccountMovement> journal = new ArrayList<>();
+            int credited = 0;
+            int charged = 0;
+            long interest = 0;
+            long fees = 0;
+            int pending = 0;
+            // El saldo se relee bajo bloqueo: el trafico en linea pudo cambiarlo desde el recorrido
+            for (Account account : locked) {
+                if (isCovered(account.getId(), completed)) {
+                    continue;
+                }
+                pending++;
+                long amount = adjustment(account);
+                if (amount == 0) {
+                    continue;
+                }
+                account.setBalance(Money.add(account.getBalance(), amount));
+                changed.add(account);
+                if (amount > 0) {
+                    journal.add(new AccountMovement(null, account.getId(), AccountMovement.MovementType.INTEREST, amount, now));
+                    interest = Money.add(interest, amount);
+                    credited++;
+                } else {
+                    journal.add(new AccountMovement(null, account.getId(), AccountMovement.MovementType.FEE, amount, now));
+                    fees = Money.subtract(fees, amount);
+                    charged++;
+                }
+            }
+            if (pending == 0) {
+                return null;
+            }
+            if (!changed.isEmpty()) {
+                accountBatchRepository.applyMovements(changed, journal);
+                outboxWriter.balanceChanged(changed);
+                changed.forEach(accountCache::evict);
+            }
+            endOfDayRepository.insertChunk(progress.businessDate, afterId, lastId, changed.size(), interest, fees, now);
+            return new long[]{credited, charged, interest, fees};
+        });
+        chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (totals == null) {
+            progress.skippedChunks.incrementAndGet();
+            chunks("skipped").increment();
+            return null;
+        }
+        progress.record((int) totals[0], (int) totals[1], totals[2], totals[3]);
+        chunks("applied").increment();
+        return null;
+    }
+
+    // Interes diario en ahorros; en corriente la comision nunca deja el saldo por debajo del piso de sobregiro
+    long adjustment(Account account) {
+        long balance = account.getBalance();
+        Account.TypeAccount type = account.getTypeAccount();
+        if (type == Account.TypeAccount.ahorros && balance > 0) {
+            return BigDecimal.valueOf(balance).multiply(annualRatePercent)
+                    .divide(BigDecimal.valueOf(100L * daysInYear), 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+        if (type == Account.TypeAccount.corriente && balance < 0) {
+            long headroom = Math.max(0L, Money.subtract(balance, type.getOverdraftFloor()));
+            return -Math.min(overdraftFee, headroom);
+        }
+        return 0L;
+    }
+
+    // Rangos (afterId, lastId] confirmados, fusionados en intervalos disjuntos para buscar con lowerEntry
+    private static TreeMap<Long, Long> mergeRanges(List<long[]> ranges) {
+        TreeMap<Long, Long> merged = new TreeMap<>();
+        Map.Entry<Long, Long> current = null;
+        for (long[] range : ranges) {
+            if (current != null && range[0] <= current.getValue()) {
+                merged.put(current.getKey(), Math.max(current.getValue(), range[1]));
+            } else {
+                merged.put(range[0], range[1]);
+            }
+            current = merged.lastEntry();
+        }
+        return merged;
+    }
+
+    private static boolean isCovered(Long id, TreeMap<Long, Long> completed) {
+        Map.Entry<Long, Long> range = completed.lowerEntry(id);
+        return range != null && range.getValue() >= id;
+    }
+
+    private static List<Long> withoutCompleted(List<Long> ids, TreeMap<Long, Long> completed) {
+        if (completed.isEmpty()) {
+            return ids;
+        }
+        List<Long> pending = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (!isCovered(id, completed)) {
+                pending.add(id);
+            }
+        }
+        return pending;
+    }
+
+    private Counter chunks(String outcome) {
+        return Counter.builder("accounts.eod.chunks")
+                .description("End-of-day chunks by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter accounts(String kind) {
+        return Counter.builder("accounts.eod.accounts")
+                .description("Accounts credited with interest or charged an overdraft fee")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private Counter amount(String kind) {
+        return Counter.builder("accounts.eod.amount")
+                .description("Interest credited and fees charged, in minor units")
+                .baseUnit("cents")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static ThreadPoolExecutor newPool(int threads, String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // Sin cierre en curso los hilos terminan y el job no ocupa recursos
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    // Los bloques en curso se revierten o confirman con su punto de control; el siguiente cierre continua.
+    // Los que seguian en cola no llegan a ejecutarse: devuelven su hueco para que el coordinador no espere
+    // para siempre y cuentan como fallidos
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        for (Runnable queued : workers.shutdownNow()) {
+            if (queued instanceof ChunkTask) {
+                ((ChunkTask) queued).abandon();
+            }
+        }
+    }
+
+    // Un bloque en cola del pool de trabajadores; ocupa un hueco de slots hasta terminar o ser descartado
+    private final class ChunkTask implements Runnable {
+        private final Progress progress;
+        private final int shard;
+        private final long afterId;
+        private final long lastId;
+        private final List<Long> ids;
+        private final Semaphore slots;
+
+        private ChunkTask(Progress progress, int shard, long afterId, long lastId, List<Long> ids, Semaphore slots) {
+            this.progress = progress;
+            this.shard = shard;
+            this.afterId = afterId;
+            this.lastId = lastId;
+            this.ids = ids;
+            this.slots = slots;
+        }
+
+        @Override
+        public void run() {
+            try {
+                shardRouter.onShard(shard, () -> processChunk(progress, afterId, lastId, ids));
+            } catch (RuntimeException e) {
+                log.warn("End-of-day chunk ({}, {}] for {} failed and will be retried on the next run",
+                        afterId, lastId, progress.businessDate, e);
+                failed();
+            } finally {
+                slots.release();
+            }
+        }
+
+        private void abandon() {
+            failed();
+            slots.release();
+        }
+
+        private void failed() {
+            progress.failedChunks.incrementAndGet();
+            chunks("failed").increment();
+        }
+    }
+
+    private final class Progress {
+        private final LocalDate businessDate;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong skippedChunks = new AtomicLong();
+        private final AtomicLong failedChunks = new AtomicLong();
+        private final AtomicLong accounts = new AtomicLong();
+        private final AtomicLong interest = new AtomicLong();
+        private final AtomicLong fees = new AtomicLong();
+        private volatile Instant finishedAt;
+        private volatile EndOfDayStatusDTO.State state = EndOfDayStatusDTO.State.RUNNING;
+
+        private Progress(LocalDate businessDate) {
+            this.businessDate = businessDate;
+        }
+
+        private void record(int credited, int charged, long chunkInterest, long chunkFees) {
+            chunks.incrementAndGet();
+            accounts.addAndGet(credited + charged);
+            interest.addAndGet(chunkInterest);
+            fees.addAndGet(chunkFees);
+            accounts("interest").increment(credited);
+            accounts("fee").increment(charged);
+            amount("interest").increment(chunkInterest);
+            amount("fee").increment(chunkFees);
+        }
+
+        private void finish(EndOfDayStatusDTO.State finalState) {
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        private EndOfDayStatusDTO toStatus() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1L) / 1000.0;
+            return new EndOfDayStatusDTO(businessDate, state, startedAt, finishedAt, chunks.get(), skippedChunks.get(),
+                    failedChunks.get(), accounts.get(), interest.get(), fees.get(), accounts.get() / seconds);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.corebankingsystem.AccountMs.metrics;
+
+// Contadores por hilo de las sentencias SQL (Hibernate y JdbcTemplate) y entidades cargadas por Hibernate durante una peticion
+public final class RequestSqlCounter {
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    private RequestSqlCounter() {
+    }
+
+    public static void statementPrepared() {
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    public static void entityLoaded() {
+        COUNTERS.get()[ENTITY_LOADS]++;
+    }
+
+    public static long statements() {
+        return COUNTERS.get()[STATEMENTS];
+    }
+
+    public static long entityLoads() {
+        return COUNTERS.get()[ENTITY_LOADS];
+    }
+
+    public static void reset() {
+        long[] counters = COUNTERS.get();
+        counters[STATEMENTS] = 0;
+        counters[ENTITY_LOADS] = 0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.corebankingsystem.AccountMs.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Registra cuantas sentencias SQL y cargas de entidades hizo cada peticion, etiquetado por endpoint.
+// En las respuestas en streaming solo se cuenta lo ejecutado en el hilo de la peticion.
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestSqlCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        String uri = uri(request);
+        summary("accounts.request.sql.statements", uri).record(RequestSqlCounter.statements());
+        summary("accounts.request.entity.loads", uri).record(RequestSqlCounter.entityLoads());
+        RequestSqlCounter.reset();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestSqlCounter.reset();
+    }
+
+    private DistributionSummary summary(String name, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return "UNKNOWN";
+        }
+        return pattern.toString();
+    }
+}
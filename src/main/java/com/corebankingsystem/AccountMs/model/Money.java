@@ -0,0 +1,106 @@
+package com.corebankingsystem.AccountMs.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Importes en unidades menores (centimos) como long. Las operaciones del camino caliente
+// (suma, resta y validacion de sobregiro) trabajan sobre primitivos y no crean objetos;
+// BigDecimal solo se usa en los bordes de la API para entradas con formato no trivial.
+public final class Money {
+
+    public static final int SCALE = 2;
+    private static final long FACTOR = 100L;
+
+    private Money() {
+    }
+
+    public static long add(long balance, long amount) {
+        return Math.addExact(balance, amount);
+    }
+
+    public static long subtract(long balance, long amount) {
+        return Math.subtractExact(balance, amount);
+    }
+
+    // true si el retiro deja el saldo en el piso permitido o por encima
+    public static boolean isWithdrawalAllowed(long balance, long amount, long floor) {
+        return subtract(balance, amount) >= floor;
+    }
+
+    // Un importe con fracciones de centimo (10.005) no se redondea: se rechaza con ArithmeticException
+    public static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(SCALE).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    // true si el importe se representa exacto en centimos (a lo sumo dos decimales significativos)
+    public static boolean isExactMinor(BigDecimal amount) {
+        return amount.stripTrailingZeros().scale() <= SCALE;
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // Convierte "123.45", "-5" o "10.5" a centimos sin pasar por double ni BigDecimal.
+    // Formatos con exponente o con mas de dos decimales significativos se delegan a BigDecimal, que rechaza
+    // las fracciones de centimo con ArithmeticException.
+    public static long parseMinor(CharSequence text) {
+        int len = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (len > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i = 1;
+        }
+        long units = 0;
+        int decimals = -1;
+        if (i == len) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+        for (; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c < '0' || c > '9' || (decimals >= SCALE && c != '0')) {
+                return toMinor(new BigDecimal(text.toString()));
+            } else if (decimals < SCALE) {
+                units = Math.addExact(Math.multiplyExact(units, 10L), c - '0');
+                decimals = nextDecimals(decimals);
+            }
+        }
+        units = Math.multiplyExact(units, pow10(SCALE - Math.max(decimals, 0)));
+        if (negative) {
+            return -units;
+        }
+        return units;
+    }
+
+    public static String format(long minor) {
+        StringBuilder sb = new StringBuilder(24);
+        if (minor < 0) {
+            sb.append('-');
+        }
+        long abs = Math.abs(minor);
+        long cents = abs % FACTOR;
+        sb.append(abs / FACTOR).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents).toString();
+    }
+
+    private static int nextDecimals(int decimals) {
+        if (decimals < 0) {
+            return decimals;
+        }
+        return decimals + 1;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1L;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10L;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.corebankingsystem.AccountMs.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Compatibilidad JSON/CBOR: los importes viajan como decimales (1000.50) pero se guardan en centimos (100050)
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+        public Serializer() {
+            super(Long.class);
+        }
+
+        // En JSON se escribe el texto ya formateado; en formatos binarios (CBOR) un decimal con exponente -2,
+        // que conserva los centimos exactos sin codificar texto
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (gen.canWriteFormattedNumbers()) {
+                gen.writeNumber(Money.format(minor));
+            } else {
+                gen.writeNumber(Money.toDecimal(minor));
+            }
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                return Money.parseMinor(p.getText().trim());
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(), "Invalid amount");
+            }
+        }
+    }
+}
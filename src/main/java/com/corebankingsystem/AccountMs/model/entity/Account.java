@@ -1,5 +1,10 @@
 package com.corebankingsystem.AccountMs.model.entity;
 
+import com.corebankingsystem.AccountMs.datasource.ShardedId;
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -7,18 +12,25 @@ import javax.validation.constraints.NotEmpty;
 
 @Data
 @Entity
-@Table(name="account")
+@Table(name="account", indexes = {
+        @Index(name = "idx_account_customer", columnList = "customer_id")
+})
 public class Account {
+    // Ids por bloques de id_block (hi/lo, uno por shard): cada viaje a la base de datos reserva blockSize ids,
+    // y como el id se conoce antes del INSERT Hibernate puede agrupar los inserts en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId(name = "account")
     private Long id;
 
     @Column(name="accountNumber", unique = true)
     private String accountNumber;
 
-    @Column(name="balance")
+    // Saldo en centimos; en JSON se expone como decimal (ver MoneyJson)
+    @Column(name="balance_minor", nullable = false)
     @NotEmpty(message = "To open an account you need an amount")
-    private double balance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long balance;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "typeAccount", nullable = false)
@@ -29,7 +41,12 @@ public class Account {
     @NotEmpty(message = "CustomerID type is required")
     private long customerId;
 
-    public Account(Long id, String accountNumber, double balance, TypeAccount typeAccount, long customerId) {
+    // Control de concurrencia optimista para las rutas que modifican la entidad completa
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public Account(Long id, String accountNumber, long balance, TypeAccount typeAccount, long customerId) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.balance = balance;
@@ -41,21 +58,43 @@ public class Account {
     }
 
     public enum TypeAccount {
-        ahorros,
-        corriente
+        ahorros(0L, "Withdrawals that result in a negative balance are not allowed for savings accounts."),
+        corriente(-50000L, "Withdrawals exceeding minus 500 below the balance are not allowed for checking account (overdrafts are permitted).");
+
+        // Saldo minimo permitido despues de un retiro, en centimos
+        private final long overdraftFloor;
+        // Mensaje de la respuesta 422 cuando un retiro superaria el saldo minimo
+        private final String overdraftMessage;
+
+        TypeAccount(long overdraftFloor, String overdraftMessage) {
+            this.overdraftFloor = overdraftFloor;
+            this.overdraftMessage = overdraftMessage;
+        }
+
+        public long getOverdraftFloor() {
+            return overdraftFloor;
+        }
+
+        public String getOverdraftMessage() {
+            return overdraftMessage;
+        }
+
+        public boolean allowsWithdrawal(long balance, long amount) {
+            return Money.isWithdrawalAllowed(balance, amount, overdraftFloor);
+        }
     }
 
     //Metodo para depositar
-    public void deposit(double amount){
+    public void deposit(long amount){
         if (amount > 0) {
-            this.balance += amount;
+            this.balance = Money.add(this.balance, amount);
         }
     }
 
     // Método para retirar
-    public void withdraw(Double amount) {
+    public void withdraw(long amount) {
         if (amount > 0) {
-            this.balance -= amount;
+            this.balance = Money.subtract(this.balance, amount);
         }
     }
 
@@ -0,0 +1,56 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Diario de movimientos de solo insercion: cada cambio de saldo deja una fila que nunca se modifica.
+// El importe lleva signo (positivo para abonos, negativo para cargos) y esta en centimos.
+@Data
+@Entity
+@Table(name="account_movement", indexes = {
+        @Index(name = "idx_movement_account_created", columnList = "account_id, created_at")
+})
+public class AccountMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="account_id", nullable = false)
+    private long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="type", nullable = false, length = 20)
+    private MovementType type;
+
+    @Column(name="amount", nullable = false)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long amount;
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+
+    public AccountMovement(Long id, long accountId, MovementType type, long amount, Instant createdAt) {
+        this.id = id;
+        this.accountId = accountId;
+        this.type = type;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+    public AccountMovement(){
+
+    }
+
+    public enum MovementType {
+        OPENING,
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER_OUT,
+        TRANSFER_IN,
+        INTEREST,
+        FEE
+    }
+}
@@ -0,0 +1,18 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Contador persistente de numeros de cuenta: cada nodo reserva bloques de valores (hi/lo)
+// incrementando nextValue, y luego los entrega en memoria sin volver a la base de datos
+@Data
+@Entity
+@Table(name="account_number_block")
+public class AccountNumberBlock {
+    @Id
+    @Column(name="name", length = 50)
+    private String name;
+
+    @Column(name="next_value", nullable = false)
+    private long nextValue;
+}
@@ -0,0 +1,42 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Foto periodica del saldo de una cuenta: el saldo a una fecha se reconstruye desde la ultima foto
+// anterior sumando solo los movimientos posteriores a lastMovementId
+@Data
+@Entity
+@Table(name="account_balance_snapshot", indexes = {
+        @Index(name = "idx_snapshot_account_taken", columnList = "account_id, taken_at")
+})
+public class BalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="account_id", nullable = false)
+    private long accountId;
+
+    @Column(name="last_movement_id", nullable = false)
+    private long lastMovementId;
+
+    @Column(name="balance", nullable = false)
+    private long balance;
+
+    @Column(name="taken_at", nullable = false)
+    private Instant takenAt;
+
+    public BalanceSnapshot(Long id, long accountId, long lastMovementId, long balance, Instant takenAt) {
+        this.id = id;
+        this.accountId = accountId;
+        this.lastMovementId = lastMovementId;
+        this.balance = balance;
+        this.takenAt = takenAt;
+    }
+    public BalanceSnapshot(){
+
+    }
+}
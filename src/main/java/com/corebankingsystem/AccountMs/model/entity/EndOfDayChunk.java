@@ -0,0 +1,42 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Punto de control del cierre diario: un bloque de cuentas (ids en (afterId, lastId]) ya procesado para una fecha.
+// Se inserta en la misma transaccion que los saldos del bloque, asi que un cierre reanudado tras una caida
+// salta exactamente los bloques confirmados y nunca cobra ni abona dos veces.
+@Data
+@Entity
+@Table(name="eod_chunk", indexes = {
+        @Index(name = "idx_eod_chunk_date", columnList = "business_date, after_id")
+})
+public class EndOfDayChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name="business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name="after_id", nullable = false)
+    private long afterId;
+
+    @Column(name="last_id", nullable = false)
+    private long lastId;
+
+    @Column(name="accounts", nullable = false)
+    private int accounts;
+
+    @Column(name="interest_minor", nullable = false)
+    private long interest;
+
+    @Column(name="fees_minor", nullable = false)
+    private long fees;
+
+    @Column(name="completed_at", nullable = false)
+    private Instant completedAt;
+}
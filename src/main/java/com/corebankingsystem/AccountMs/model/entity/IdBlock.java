@@ -0,0 +1,17 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Contador de ids por tabla (hi/lo) para ShardedIdGenerator: cada shard tiene su propia fila en su base
+@Data
+@Entity
+@Table(name="id_block")
+public class IdBlock {
+    @Id
+    @Column(name="name")
+    private String name;
+
+    @Column(name="next_value")
+    private Long nextValue;
+}
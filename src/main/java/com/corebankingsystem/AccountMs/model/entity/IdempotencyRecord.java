@@ -0,0 +1,54 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Respuesta guardada para una clave de idempotencia. La fila se inserta en la misma transaccion
+// que el cambio de saldo, de modo que ambos se confirman o se descartan juntos.
+@Data
+@Entity
+@Table(name="idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "created_at")
+})
+public class IdempotencyRecord {
+    @Id
+    @Column(name="idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Operacion, cuenta e importe de la peticion original, para detectar reutilizacion de la clave
+    @Column(name="fingerprint", nullable = false, length = 200)
+    private String fingerprint;
+
+    @Column(name="status")
+    private Integer status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="body_type", length = 10)
+    private BodyType bodyType;
+
+    @Column(name="body", length = 4000)
+    private String body;
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecord(String idempotencyKey, String fingerprint, Integer status, BodyType bodyType, String body, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.bodyType = bodyType;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+    public IdempotencyRecord(){
+
+    }
+
+    public enum BodyType {
+        ACCOUNT,
+        TRANSFER,
+        TEXT
+    }
+}
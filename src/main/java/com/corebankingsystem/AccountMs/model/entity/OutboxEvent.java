@@ -0,0 +1,75 @@
+package com.corebankingsystem.AccountMs.model.entity;
+
+import com.corebankingsystem.AccountMs.model.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Evento de cambio de cuenta escrito en la misma transaccion que el cambio (patron outbox).
+// position es nulo hasta que el relay lo publica; a partir de ahi es el cursor del feed de cambios
+// y crece en el orden de publicacion, aunque las transacciones confirmen con ids desordenados.
+// Con shards lleva el shard en sus 16 bits altos: es unica en todo el sistema y crece dentro de cada shard.
+@Data
+@Entity
+@Table(name="account_outbox", indexes = {
+        @Index(name = "idx_outbox_position", columnList = "feed_position, id")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long id;
+
+    @Column(name="feed_position")
+    private Long position;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name="event_type", nullable = false, length = 20)
+    private EventType eventType;
+
+    @Column(name="account_id", nullable = false)
+    private long accountId;
+
+    @Column(name="account_number", length = 20)
+    private String accountNumber;
+
+    @Column(name="customer_id", nullable = false)
+    private long customerId;
+
+    // Saldo en centimos despues del cambio; nulo en ACCOUNT_DELETED
+    @Column(name="balance")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long balance;
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name="published_at")
+    @JsonIgnore
+    private Instant publishedAt;
+
+    public OutboxEvent(Long id, EventType eventType, long accountId, String accountNumber, long customerId,
+                       Long balance, Instant createdAt) {
+        this.id = id;
+        this.eventType = eventType;
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.customerId = customerId;
+        this.balance = balance;
+        this.createdAt = createdAt;
+    }
+    public OutboxEvent(){
+
+    }
+
+    public enum EventType {
+        ACCOUNT_OPENED,
+        BALANCE_CHANGED,
+        ACCOUNT_DELETED
+    }
+}
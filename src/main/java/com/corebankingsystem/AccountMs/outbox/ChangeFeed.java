@@ -0,0 +1,218 @@
+package com.corebankingsystem.AccountMs.outbox;
+
+import com.corebankingsystem.AccountMs.DTO.ChangesPageDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import com.corebankingsystem.AccountMs.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Feed de cambios con long-poll sobre los eventos publicados del outbox. Si no hay eventos despues del
+// cursor la peticion queda en espera (DeferredResult, sin ocupar un hilo de Tomcat) hasta que el relay
+// publica algo o vence el tiempo de espera, en cuyo caso responde una pagina vacia con el mismo cursor.
+// Con shards cada base numera sus posiciones por separado, asi que el cursor lleva la ultima posicion
+// entregada de cada shard separadas por comas ("12,3,7"); con un solo shard es un numero, como antes.
+@Component
+public class ChangeFeed {
+
+    private static final long POSITION_MASK = (1L << ShardRouter.ID_SHARD_SHIFT) - 1;
+
+    private final OutboxRepository outboxRepository;
+    private final ShardRouter shardRouter;
+    private final int maxLimit;
+    private final long maxWaitMs;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicLongArray seenPositions;
+
+    public ChangeFeed(OutboxRepository outboxRepository,
+                      ShardRouter shardRouter,
+                      @Value("${accounts.changes.max-limit:1000}") int maxLimit,
+                      @Value("${accounts.changes.max-wait-ms:30000}") long maxWaitMs) {
+        this.outboxRepository = outboxRepository;
+        this.shardRouter = shardRouter;
+        this.maxLimit = maxLimit;
+        this.maxWaitMs = maxWaitMs;
+        this.seenPositions = new AtomicLongArray(shardRouter.getShardCount());
+    }
+
+    public DeferredResult<ChangesPageDTO> poll(String after, int limit, long waitMs) {
+        int size = Math.max(1, Math.min(limit, maxLimit));
+        long wait = Math.max(0L, Math.min(waitMs, maxWaitMs));
+        long[] cursor;
+        try {
+            cursor = parseCursor(after);
+        } catch (IllegalArgumentException e) {
+            DeferredResult<ChangesPageDTO> invalid = new DeferredResult<>();
+            invalid.setErrorResult(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + after));
+            return invalid;
+        }
+        ChangesPageDTO empty = new ChangesPageDTO(Collections.<OutboxEvent>emptyList(), formatCursor(cursor));
+        DeferredResult<ChangesPageDTO> result = new DeferredResult<>(wait, () -> empty);
+        Waiter waiter = new Waiter(cursor, size, result);
+        // Se registra antes de consultar: un evento publicado entre la consulta y el registro no se pierde
+        if (wait > 0) {
+            waiters.add(waiter);
+            result.onCompletion(() -> waiters.remove(waiter));
+        }
+        List<OutboxEvent> events = merge(load(cursor, size), cursor, size);
+        if (!events.isEmpty() || wait == 0) {
+            waiters.remove(waiter);
+            result.setResult(page(events, cursor));
+        }
+        return result;
+    }
+
+    // Avisa a las peticiones en espera si la ultima posicion publicada de algun shard paso de la ultima que
+    // vio este nodo. Asi se despiertan tambien cuando publica el relay de otro nodo, no solo el de este
+    public void notifyIfAdvanced() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        List<Long> latest = shardRouter.onEachShard(outboxRepository::maxPosition);
+        boolean advanced = false;
+        for (int shard = 0; shard < latest.size(); shard++) {
+            long position = latest.get(shard);
+            advanced |= seenPositions.getAndAccumulate(shard, position, Math::max) < position;
+        }
+        if (advanced) {
+            notifyNewEvents();
+        }
+    }
+
+    // Una sola consulta por shard desde el cursor mas antiguo en espera; cada peticion toma su parte en memoria.
+    // Solo si esa pagina no alcanza para alguna peticion se consulta para ella por separado.
+    private void notifyNewEvents() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long[] from = null;
+        for (Waiter waiter : waiters) {
+            if (from == null) {
+                from = waiter.cursor.clone();
+            }
+            for (int shard = 0; shard < from.length; shard++) {
+                from[shard] = Math.min(from[shard], waiter.cursor[shard]);
+            }
+        }
+        if (from == null) {
+            return;
+        }
+        List<List<OutboxEvent>> loaded = load(from, maxLimit);
+        boolean complete = true;
+        for (List<OutboxEvent> shardEvents : loaded) {
+            complete &= shardEvents.size() < maxLimit;
+        }
+        for (Waiter waiter : waiters) {
+            List<OutboxEvent> events = merge(loaded, waiter.cursor, waiter.limit);
+            if (events.isEmpty() && !complete) {
+                events = merge(load(waiter.cursor, waiter.limit), waiter.cursor, waiter.limit);
+            }
+            if (!events.isEmpty()) {
+                waiters.remove(waiter);
+                waiter.result.setResult(page(events, waiter.cursor));
+            }
+        }
+    }
+
+    // Eventos despues del cursor en cada shard, consultados en paralelo y en orden de shard
+    private List<List<OutboxEvent>> load(long[] cursor, int limit) {
+        return shardRouter.fanOut(() -> {
+            int shard = shardRouter.currentShard();
+            return outboxRepository.findPublishedAfter(ShardRouter.firstId(shard) | cursor[shard], limit);
+        });
+    }
+
+    // Intercala los shards por momento de publicacion. De cada shard se toma siempre un prefijo en orden de
+    // posicion, asi que avanzar su parte del cursor hasta el ultimo evento tomado no salta ninguno
+    private List<OutboxEvent> merge(List<List<OutboxEvent>> perShard, long[] cursor, int limit) {
+        int[] next = new int[perShard.size()];
+        List<OutboxEvent> events = new ArrayList<>();
+        while (events.size() < limit) {
+            OutboxEvent earliest = null;
+            int pick = -1;
+            for (int shard = 0; shard < perShard.size(); shard++) {
+                List<OutboxEvent> shardEvents = perShard.get(shard);
+                while (next[shard] < shardEvents.size() && offset(shardEvents.get(next[shard])) <= cursor[shard]) {
+                    next[shard]++;
+                }
+                if (next[shard] < shardEvents.size()) {
+                    OutboxEvent head = shardEvents.get(next[shard]);
+                    if (earliest == null || head.getPublishedAt().isBefore(earliest.getPublishedAt())) {
+                        earliest = head;
+                        pick = shard;
+                    }
+                }
+            }
+            if (earliest == null) {
+                break;
+            }
+            events.add(earliest);
+            next[pick]++;
+        }
+        return events;
+    }
+
+    private ChangesPageDTO page(List<OutboxEvent> events, long[] cursor) {
+        long[] next = cursor.clone();
+        for (OutboxEvent event : events) {
+            next[shardRouter.shardOfId(event.getPosition())] = offset(event);
+        }
+        return new ChangesPageDTO(events, formatCursor(next));
+    }
+
+    private long[] parseCursor(String after) {
+        long[] cursor = new long[shardRouter.getShardCount()];
+        if (after == null || after.isEmpty()) {
+            return cursor;
+        }
+        String[] parts = after.split(",", -1);
+        if (parts.length > cursor.length) {
+            throw new IllegalArgumentException("The cursor has more positions than shards");
+        }
+        for (int shard = 0; shard < parts.length; shard++) {
+            long position = Long.parseLong(parts[shard].trim());
+            if (position < 0 || position > POSITION_MASK) {
+                throw new IllegalArgumentException("Position out of range");
+            }
+            cursor[shard] = position;
+        }
+        return cursor;
+    }
+
+    private static String formatCursor(long[] cursor) {
+        StringBuilder text = new StringBuilder();
+        for (int shard = 0; shard < cursor.length; shard++) {
+            if (shard > 0) {
+                text.append(',');
+            }
+            text.append(cursor[shard]);
+        }
+        return text.toString();
+    }
+
+    private static long offset(OutboxEvent event) {
+        return event.getPosition() & POSITION_MASK;
+    }
+
+    private static final class Waiter {
+        private final long[] cursor;
+        private final int limit;
+        private final DeferredResult<ChangesPageDTO> result;
+
+        private Waiter(long[] cursor, int limit, DeferredResult<ChangesPageDTO> result) {
+            this.cursor = cursor;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.corebankingsystem.AccountMs.outbox;
+
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Sink por defecto: solo deja constancia en el log. Los consumidores leen GET /accounts/changes
+@Component
+@ConditionalOnProperty(name = "accounts.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        if (log.isDebugEnabled()) {
+            for (OutboxEvent event : events) {
+                log.debug("{} account={} position={}", event.getEventType(), event.getAccountId(), event.getPosition());
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.corebankingsystem.AccountMs.outbox;
+
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import com.corebankingsystem.AccountMs.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Publica los eventos pendientes del outbox por lotes: bloquea el lote, lo entrega al sink, le asigna
+// posiciones consecutivas del feed y lo marca como publicado en la misma transaccion. Si el sink falla
+// la transaccion se revierte y el lote se reintenta en la siguiente pasada (entrega al menos una vez).
+// Con shards cada base tiene su propio outbox y se vacian uno detras de otro. Las posiciones llevan el shard
+// en sus 16 bits altos (como los ids de cuenta), asi que no se repiten entre shards.
+// La pasada corre tambien en los nodos con el relay desactivado: ahi no publica, pero despierta las
+// peticiones del feed de este nodo cuando otro nodo ha publicado eventos.
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final ChangeFeed changeFeed;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean enabled;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxSink outboxSink,
+                       ChangeFeed changeFeed,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${accounts.outbox.batch-size:500}") int batchSize,
+                       @Value("${accounts.outbox.relay-enabled:true}") boolean enabled,
+                       @Value("${accounts.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.changeFeed = changeFeed;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    // Vacia el outbox lote a lote y avisa una sola vez a las peticiones del feed que estan esperando,
+    // tanto si publico este nodo como si el outbox avanzo por otro
+    @Scheduled(fixedDelayString = "${accounts.outbox.relay-interval-ms:500}",
+            initialDelayString = "${accounts.outbox.relay-interval-ms:500}")
+    public int relay() {
+        int total = 0;
+        if (enabled) {
+            for (int published : shardRouter.onEachShard(this::drain)) {
+                total += published;
+            }
+        }
+        changeFeed.notifyIfAdvanced();
+        return total;
+    }
+
+    private int drain() {
+        int total = 0;
+        int published;
+        do {
+            published = transactionTemplate.execute(status -> publishBatch());
+            total += published;
+        } while (published == batchSize);
+        return total;
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxRepository.lockUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        long position = Math.max(outboxRepository.maxPosition(), ShardRouter.firstId(shardRouter.currentShard()));
+        for (OutboxEvent event : events) {
+            event.setPosition(++position);
+        }
+        outboxSink.publish(events);
+        outboxRepository.markPublished(events, Instant.now());
+        return events.size();
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.outbox.purge-interval-ms:3600000}")
+    public int purgePublished() {
+        Instant cutoff = Instant.now().minus(retention);
+        int total = 0;
+        for (int deleted : shardRouter.onEachShard(() -> outboxRepository.deletePublishedBefore(cutoff, outboxRepository.maxPosition()))) {
+            total += deleted;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,13 @@
+package com.corebankingsystem.AccountMs.outbox;
+
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+
+import java.util.List;
+
+// Destino de los eventos del outbox (broker, webhook, log...). El relay entrega los eventos en orden
+// y al menos una vez: si publish lanza una excepcion, el mismo lote se reintenta en la siguiente pasada,
+// por lo que los consumidores deben descartar duplicados por position.
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
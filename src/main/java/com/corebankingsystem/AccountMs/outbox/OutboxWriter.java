@@ -0,0 +1,55 @@
+package com.corebankingsystem.AccountMs.outbox;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import com.corebankingsystem.AccountMs.repository.OutboxRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Escribe los eventos de cambio de cuenta en account_outbox. Debe llamarse dentro de la transaccion
+// que hizo el cambio, con la cuenta ya actualizada: si la transaccion se revierte, el evento tambien
+@Component
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+
+    public OutboxWriter(OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public void opened(Account account) {
+        opened(Collections.singletonList(account));
+    }
+
+    public void opened(Collection<Account> accounts) {
+        append(OutboxEvent.EventType.ACCOUNT_OPENED, accounts);
+    }
+
+    public void balanceChanged(Account account) {
+        balanceChanged(Collections.singletonList(account));
+    }
+
+    public void balanceChanged(Collection<Account> accounts) {
+        append(OutboxEvent.EventType.BALANCE_CHANGED, accounts);
+    }
+
+    public void deleted(Account account) {
+        outboxRepository.append(Collections.singletonList(new OutboxEvent(null, OutboxEvent.EventType.ACCOUNT_DELETED,
+                account.getId(), account.getAccountNumber(), account.getCustomerId(), null, Instant.now())));
+    }
+
+    private void append(OutboxEvent.EventType type, Collection<Account> accounts) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            events.add(new OutboxEvent(null, type, account.getId(), account.getAccountNumber(),
+                    account.getCustomerId(), account.getBalance(), now));
+        }
+        outboxRepository.append(events);
+    }
+}
@@ -0,0 +1,121 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Operaciones JDBC por lotes sobre account para aplicar muchos movimientos en una sola transaccion
+@Repository
+public class AccountBatchRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Mismo intervalo que MovementJournal: cada cuantas actualizaciones de saldo (version) se guarda una foto
+    @Value("${accounts.journal.snapshot-interval:100}")
+    private long snapshotInterval;
+
+    // Resuelve los numeros de cuenta con una sola consulta IN y luego bloquea las filas por id ascendente.
+    // Bloquear siempre en orden de id evita interbloqueos entre lotes que comparten cuentas.
+    public List<Account> lockByAccountNumbers(Collection<String> accountNumbers) {
+        if (accountNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM account WHERE account_number IN (:numbers)",
+                new MapSqlParameterSource("numbers", accountNumbers), Long.class);
+        return lockByIds(ids);
+    }
+
+    public List<Account> lockByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return namedParameterJdbcTemplate.query(
+                "SELECT " + AccountRowMapper.COLUMNS + " FROM account WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                new MapSqlParameterSource("ids", ids), new AccountRowMapper());
+    }
+
+    // Unico camino de escritura de saldos por lotes (lotes, transferencias, cuentas calientes, cierre diario).
+    // Las cuentas deben venir bloqueadas y con el saldo final. La version avanza una vez por movimiento, igual
+    // que en MovementJournal.record(), y las cuentas cuya version cruza un multiplo del intervalo reciben una
+    // foto de saldo; sin ella las cuentas con mas movimientos reconstruirian su saldo desde todo el diario.
+    public void applyMovements(Collection<Account> changed, List<AccountMovement> movements) {
+        Map<Long, Integer> movementCounts = new HashMap<>();
+        Map<Long, AccountMovement> lastMovements = new HashMap<>();
+        for (AccountMovement movement : movements) {
+            movementCounts.merge(movement.getAccountId(), 1, Integer::sum);
+            lastMovements.put(movement.getAccountId(), movement);
+        }
+        List<Account> crossing = new ArrayList<>();
+        for (Account account : changed) {
+            long before = account.getVersion();
+            long after = before + Math.max(1, movementCounts.getOrDefault(account.getId(), 0));
+            account.setVersion(after);
+            if (after / snapshotInterval != before / snapshotInterval && lastMovements.containsKey(account.getId())) {
+                crossing.add(account);
+            }
+        }
+        updateBalances(changed);
+        insertMovements(movements);
+        if (!crossing.isEmpty()) {
+            insertSnapshots(crossing, lastMovements);
+        }
+    }
+
+    // Las filas estan bloqueadas, asi que la version se escribe tal cual la calculo applyMovements
+    private void updateBalances(Collection<Account> accounts) {
+        jdbcTemplate.batchUpdate("UPDATE account SET balance_minor = ?, version = ? WHERE id = ?",
+                accounts, accounts.size(), (ps, account) -> {
+                    ps.setLong(1, account.getBalance());
+                    ps.setLong(2, account.getVersion());
+                    ps.setLong(3, account.getId());
+                });
+    }
+
+    // Con la fila de la cuenta bloqueada nadie mas inserta movimientos suyos: el id maximo es el del lote
+    private void insertSnapshots(List<Account> accounts, Map<Long, AccountMovement> lastMovements) {
+        List<Long> ids = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            ids.add(account.getId());
+        }
+        Map<Long, Long> lastMovementIds = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT account_id, MAX(id) FROM account_movement WHERE account_id IN (:ids) GROUP BY account_id",
+                new MapSqlParameterSource("ids", ids), rs -> {
+                    lastMovementIds.put(rs.getLong(1), rs.getLong(2));
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO account_balance_snapshot (account_id, last_movement_id, balance, taken_at) VALUES (?, ?, ?, ?)",
+                accounts, accounts.size(), (ps, account) -> {
+                    ps.setLong(1, account.getId());
+                    ps.setLong(2, lastMovementIds.get(account.getId()));
+                    ps.setLong(3, account.getBalance());
+                    ps.setTimestamp(4, Timestamp.from(lastMovements.get(account.getId()).getCreatedAt()));
+                });
+    }
+
+    public void insertMovements(List<AccountMovement> movements) {
+        jdbcTemplate.batchUpdate("INSERT INTO account_movement (account_id, type, amount, created_at) VALUES (?, ?, ?, ?)",
+                movements, movements.size(), (ps, movement) -> {
+                    ps.setLong(1, movement.getAccountId());
+                    ps.setString(2, movement.getType().name());
+                    ps.setLong(3, movement.getAmount());
+                    ps.setTimestamp(4, Timestamp.from(movement.getCreatedAt()));
+                });
+    }
+}
@@ -0,0 +1,50 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Lectura de cuentas con un cursor JDBC forward-only: las filas se procesan una a una
+// y nunca se cargan todas en memoria ni en el contexto de persistencia
+@Repository
+public class AccountCursorRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Integer.MIN_VALUE activa el modo streaming del driver de MySQL
+    @Value("${accounts.stream.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    public void forEach(Account.TypeAccount typeAccount, Long customerId, Consumer<Account> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT " + AccountRowMapper.COLUMNS + " FROM account WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (typeAccount != null) {
+            sql.append(" AND type_account = ?");
+            args.add(typeAccount.name());
+        }
+        if (customerId != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(customerId);
+        }
+        sql.append(" ORDER BY id");
+        AccountRowMapper mapper = new AccountRowMapper();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapper.mapRow(rs, 0)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AccountMovementRepository extends JpaRepository<AccountMovement, Long> {
+
+    // Lectura por keyset sobre id dentro del rango [from, to)
+    @Query("SELECT m FROM AccountMovement m WHERE m.accountId = :accountId"
+            + " AND m.createdAt >= :from AND m.createdAt < :to AND m.id > :afterId"
+            + " ORDER BY m.id ASC")
+    List<AccountMovement> findStatementPage(@Param("accountId") long accountId,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(m.amount), 0) FROM AccountMovement m WHERE m.accountId = :accountId"
+            + " AND m.id > :afterId AND m.createdAt < :before")
+    long sumAmountsAfter(@Param("accountId") long accountId,
+                         @Param("afterId") long afterId,
+                         @Param("before") Instant before);
+}
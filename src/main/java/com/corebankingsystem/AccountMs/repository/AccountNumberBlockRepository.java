@@ -0,0 +1,45 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Reserva atomica de bloques de numeros de cuenta sobre la tabla account_number_block
+@Repository
+public class AccountNumberBlockRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Devuelve el primer valor del bloque [inicio, inicio + size) reservado para este nodo.
+    // Corre en su propia transaccion para que el bloqueo de la fila dure lo minimo.
+    public long reserve(String name, long size, long initialValue) {
+        try {
+            return reserveOnce(name, size, initialValue);
+        } catch (DuplicateKeyException e) {
+            // Otro nodo creo el contador al mismo tiempo: ahora la fila ya existe
+            return reserveOnce(name, size, initialValue);
+        }
+    }
+
+    private long reserveOnce(String name, long size, long initialValue) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return tx.execute(status -> {
+            int updated = jdbcTemplate.update("UPDATE account_number_block SET next_value = next_value + ? WHERE name = ?", size, name);
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO account_number_block (name, next_value) VALUES (?, ?)", name, initialValue + size);
+                return initialValue;
+            }
+            Long next = jdbcTemplate.queryForObject("SELECT next_value FROM account_number_block WHERE name = ?", Long.class, name);
+            return next - size;
+        });
+    }
+}
@@ -1,7 +1,11 @@
 package com.corebankingsystem.AccountMs.repository;
 
 import com.corebankingsystem.AccountMs.model.entity.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,5 +15,43 @@ public interface AccountRepository extends JpaRepository <Account, Long> {
     Optional<List<Account>> findByCustomerId(Long customerId);
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    // Numero de cuentas y saldo total por tipo en una sola consulta agregada sobre idx_account_customer
+    @Query("SELECT a.typeAccount AS typeAccount, COUNT(a) AS accounts, SUM(a.balance) AS balance"
+            + " FROM Account a WHERE a.customerId = :customerId"
+            + " GROUP BY a.typeAccount ORDER BY a.typeAccount")
+    List<AccountTypeTotals> summarizeByCustomerId(@Param("customerId") long customerId);
+
+    // Paginacion por keyset sobre id: el costo no depende de la posicion de la pagina
+    @Query("SELECT a FROM Account a WHERE a.id > :afterId"
+            + " AND (:typeAccount IS NULL OR a.typeAccount = :typeAccount)"
+            + " AND (:customerId IS NULL OR a.customerId = :customerId)"
+            + " ORDER BY a.id ASC")
+    List<Account> findPageAfter(@Param("afterId") long afterId,
+                                @Param("typeAccount") Account.TypeAccount typeAccount,
+                                @Param("customerId") Long customerId,
+                                Pageable pageable);
+
+    // Deposito atomico en una sola sentencia; devuelve 0 si la cuenta no existe
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.version = a.version + 1 WHERE a.id = :id")
+    int depositBalance(@Param("id") Long id, @Param("amount") long amount);
+
+    // Retiro atomico condicionado al piso de sobregiro de cada tipo de cuenta
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1 WHERE a.id = :id"
+            + " AND ((a.typeAccount = :savings AND a.balance - :amount >= :savingsFloor)"
+            + " OR (a.typeAccount <> :savings AND a.balance - :amount >= :checkingFloor))")
+    int withdrawBalance(@Param("id") Long id,
+                        @Param("amount") long amount,
+                        @Param("savings") Account.TypeAccount savings,
+                        @Param("savingsFloor") long savingsFloor,
+                        @Param("checkingFloor") long checkingFloor);
+
+    // Devuelve 0 si la cuenta no existe o si el retiro deja el saldo por debajo del piso permitido
+    default int withdrawIfAllowed(Long id, long amount) {
+        return withdrawBalance(id, amount, Account.TypeAccount.ahorros,
+                Account.TypeAccount.ahorros.getOverdraftFloor(),
+                Account.TypeAccount.corriente.getOverdraftFloor());
+    }
 
 }
@@ -0,0 +1,24 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Mapea una fila de la tabla account sin pasar por el contexto de persistencia de JPA
+public class AccountRowMapper implements RowMapper<Account> {
+
+    public static final String COLUMNS = "id, account_number, balance_minor, type_account, customer_id";
+
+    @Override
+    public Account mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new Account(
+                rs.getLong("id"),
+                rs.getString("account_number"),
+                rs.getLong("balance_minor"),
+                Account.TypeAccount.valueOf(rs.getString("type_account")),
+                rs.getLong("customer_id")
+        );
+    }
+}
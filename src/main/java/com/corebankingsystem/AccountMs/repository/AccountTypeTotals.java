@@ -0,0 +1,11 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+
+// Proyeccion de la consulta agregada por tipo de cuenta: Spring Data la rellena a partir de los alias
+// del SELECT, sin instanciar ninguna entidad Account
+public interface AccountTypeTotals {
+    Account.TypeAccount getTypeAccount();
+    Long getAccounts();
+    Long getBalance();
+}
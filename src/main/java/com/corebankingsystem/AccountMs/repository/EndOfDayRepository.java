@@ -0,0 +1,48 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// Acceso JDBC para el cierre diario: recorrido por keyset de las cuentas con algo que aplicar y
+// puntos de control por bloque (eod_chunk)
+@Repository
+public class EndOfDayRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Solo ids, sin bloquear: las cuentas se releen con FOR UPDATE dentro de la transaccion de cada bloque
+    public List<Long> findCandidateIds(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM account WHERE id > ?"
+                        + " AND ((type_account = ? AND balance_minor > 0) OR (type_account = ? AND balance_minor < 0))"
+                        + " ORDER BY id LIMIT ?",
+                Long.class, afterId, Account.TypeAccount.ahorros.name(), Account.TypeAccount.corriente.name(), limit);
+    }
+
+    // Rangos (afterId, lastId] ya confirmados para la fecha
+    public List<long[]> findCompletedRanges(LocalDate businessDate) {
+        return jdbcTemplate.query("SELECT after_id, last_id FROM eod_chunk WHERE business_date = ? ORDER BY after_id",
+                (rs, rowNum) -> new long[] {rs.getLong("after_id"), rs.getLong("last_id")}, Date.valueOf(businessDate));
+    }
+
+    // Rangos de la fecha que se solapan con (fromId, toId], para volver a comprobar un bloque ya bloqueado
+    public List<long[]> findCompletedRanges(LocalDate businessDate, long fromId, long toId) {
+        return jdbcTemplate.query("SELECT after_id, last_id FROM eod_chunk WHERE business_date = ? AND last_id > ? AND after_id < ?"
+                        + " ORDER BY after_id",
+                (rs, rowNum) -> new long[] {rs.getLong("after_id"), rs.getLong("last_id")}, Date.valueOf(businessDate), fromId, toId);
+    }
+
+    public void insertChunk(LocalDate businessDate, long afterId, long lastId, int accounts, long interest, long fees, Instant completedAt) {
+        jdbcTemplate.update("INSERT INTO eod_chunk (business_date, after_id, last_id, accounts, interest_minor, fees_minor, completed_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                Date.valueOf(businessDate), afterId, lastId, accounts, interest, fees, Timestamp.from(completedAt));
+    }
+}
@@ -0,0 +1,57 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// Acceso JDBC a idempotency_key: el INSERT explicito hace que una peticion duplicada concurrente
+// espere al bloqueo de la clave primaria y falle con DuplicateKeyException al confirmarse la primera
+@Repository
+public class IdempotencyRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void claim(String key, String fingerprint, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_key (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?)",
+                key, fingerprint, Timestamp.from(createdAt));
+    }
+
+    public void complete(String key, int status, IdempotencyRecord.BodyType bodyType, String body) {
+        jdbcTemplate.update("UPDATE idempotency_key SET status = ?, body_type = ?, body = ? WHERE idempotency_key = ?",
+                status, bodyType.name(), body, key);
+    }
+
+    public Optional<IdempotencyRecord> find(String key) {
+        List<IdempotencyRecord> records = jdbcTemplate.query(
+                "SELECT idempotency_key, fingerprint, status, body_type, body, created_at FROM idempotency_key WHERE idempotency_key = ?",
+                (rs, rowNum) -> mapRow(rs), key);
+        return records.stream().findFirst();
+    }
+
+    private static IdempotencyRecord mapRow(ResultSet rs) throws SQLException {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(rs.getString("idempotency_key"));
+        record.setFingerprint(rs.getString("fingerprint"));
+        record.setStatus(rs.getObject("status", Integer.class));
+        String bodyType = rs.getString("body_type");
+        if (bodyType != null) {
+            record.setBodyType(IdempotencyRecord.BodyType.valueOf(bodyType));
+        }
+        record.setBody(rs.getString("body"));
+        record.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        return record;
+    }
+
+    public int deleteCreatedBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at < ?", Timestamp.from(before));
+    }
+}
@@ -0,0 +1,88 @@
+package com.corebankingsystem.AccountMs.repository;
+
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+// Acceso JDBC a account_outbox. Los eventos se insertan en lote dentro de la transaccion del cambio;
+// el relay los publica en orden de id y les asigna feed_position, que es el cursor del feed de cambios
+@Repository
+public class OutboxRepository {
+
+    private static final String COLUMNS = "id, feed_position, event_type, account_id, account_number, customer_id, balance, created_at, published_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void append(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate("INSERT INTO account_outbox (event_type, account_id, account_number, customer_id, balance, created_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?)",
+                events, events.size(), (ps, event) -> {
+                    ps.setString(1, event.getEventType().name());
+                    ps.setLong(2, event.getAccountId());
+                    ps.setString(3, event.getAccountNumber());
+                    ps.setLong(4, event.getCustomerId());
+                    if (event.getBalance() == null) {
+                        ps.setNull(5, Types.BIGINT);
+                    } else {
+                        ps.setLong(5, event.getBalance());
+                    }
+                    ps.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+                });
+    }
+
+    // Bloquea los siguientes eventos sin publicar para que un relay concurrente no los publique dos veces
+    public List<OutboxEvent> lockUnpublished(int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM account_outbox WHERE feed_position IS NULL ORDER BY id LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> mapRow(rs), limit);
+    }
+
+    public long maxPosition() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(feed_position) FROM account_outbox", Long.class);
+        return max == null ? 0L : max;
+    }
+
+    public void markPublished(List<OutboxEvent> events, Instant publishedAt) {
+        jdbcTemplate.batchUpdate("UPDATE account_outbox SET feed_position = ?, published_at = ? WHERE id = ?",
+                events, events.size(), (ps, event) -> {
+                    ps.setLong(1, event.getPosition());
+                    ps.setTimestamp(2, Timestamp.from(publishedAt));
+                    ps.setLong(3, event.getId());
+                });
+    }
+
+    public List<OutboxEvent> findPublishedAfter(long position, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM account_outbox WHERE feed_position > ? ORDER BY feed_position LIMIT ?",
+                (rs, rowNum) -> mapRow(rs), position, limit);
+    }
+
+    // Conserva siempre el ultimo evento publicado para que feed_position no vuelva a empezar desde 0
+    public int deletePublishedBefore(Instant before, long keepFromPosition) {
+        return jdbcTemplate.update("DELETE FROM account_outbox WHERE published_at < ? AND feed_position < ?",
+                Timestamp.from(before), keepFromPosition);
+    }
+
+    private static OutboxEvent mapRow(ResultSet rs) throws SQLException {
+        OutboxEvent event = new OutboxEvent(rs.getLong("id"),
+                OutboxEvent.EventType.valueOf(rs.getString("event_type")),
+                rs.getLong("account_id"),
+                rs.getString("account_number"),
+                rs.getLong("customer_id"),
+                rs.getObject("balance", Long.class),
+                rs.getTimestamp("created_at").toInstant());
+        event.setPosition(rs.getObject("feed_position", Long.class));
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        if (publishedAt != null) {
+            event.setPublishedAt(publishedAt.toInstant());
+        }
+        return event;
+    }
+}
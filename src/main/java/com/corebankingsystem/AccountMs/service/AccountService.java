@@ -1,21 +1,43 @@
 package com.corebankingsystem.AccountMs.service;
 
+import com.corebankingsystem.AccountMs.DTO.AccountImportResultDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountPageDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementResultDTO;
+import com.corebankingsystem.AccountMs.DTO.CustomerSummaryDTO;
 import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AccountService {
 
     public List<Account> getAccounts();
     public Optional<Account> getAccountId(Long id);
-    public ResponseEntity<Object> deposit(Long accountId, Double amount);
-    public ResponseEntity<Object> withdraw(Long accountId, Double amount);
+    public ResponseEntity<Object> deposit(Long accountId, long amount);
+    public ResponseEntity<Object> withdraw(Long accountId, long amount);
+    public ResponseEntity<Object> transfer(Long sourceAccountId, Long targetAccountId, long amount);
     public ResponseEntity<Object> deleteAccount(Long id);
-    public Account createAccount(double balance, Account.TypeAccount typeAccount, long customerId) ;
+    public Account createAccount(long balance, Account.TypeAccount typeAccount, long customerId) ;
     public Optional<List<Account>> getCustomerId(Long id) ;
+    public CustomerSummaryDTO getCustomerSummary(long customerId);
     public Optional<Account> getAccountByNumber(String accountNumber);
+    public Optional<Long> getAccountIdByNumber(String accountNumber);
+    public Map<String, Object> getCacheStats();
+    public List<BatchMovementResultDTO> applyBatch(List<BatchMovementDTO> movements);
+    public AccountImportResultDTO importAccounts(Reader reader, MediaType format) throws IOException;
+    public AccountPageDTO getAccountsPage(Long after, int limit, Account.TypeAccount typeAccount, Long customerId);
+    public long getBalanceBefore(Long accountId, Instant before);
+    public void streamStatement(Long accountId, Instant from, Instant to, Consumer<AccountMovement> consumer);
+    public void streamAccounts(Account.TypeAccount typeAccount, Long customerId, Consumer<Account> consumer);
 
 
 
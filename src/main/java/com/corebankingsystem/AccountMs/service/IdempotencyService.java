@@ -0,0 +1,12 @@
+package com.corebankingsystem.AccountMs.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    public ResponseEntity<Object> execute(String idempotencyKey, String fingerprint, Supplier<ResponseEntity<Object>> operation);
+    public int purgeExpired();
+
+}
@@ -0,0 +1,153 @@
+package com.corebankingsystem.AccountMs.service.impl;
+
+import com.corebankingsystem.AccountMs.datasource.ReplicaRouting;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cache en proceso para las consultas por numero de cuenta que llegan desde TransactionMS.
+// El mapeo numero -> id no cambia mientras la cuenta exista; la copia de la cuenta (snapshot)
+// se invalida en cada deposito, retiro o eliminacion. Las invalidaciones solo llegan a este nodo, asi que el
+// snapshot ademas caduca a los pocos segundos: un cambio hecho en otro nodo se ve como mucho con ese retraso.
+// Cada invalidacion queda marcada (por franjas de ids) con un reloj creciente; una lectura de la base solo se
+// guarda si no hubo invalidacion de esa cuenta desde que empezo, asi un saldo leido antes de un cambio
+// local no se queda en cache hasta que caduque.
+@Component
+public class AccountCache implements MeterBinder {
+
+    private static final int EVICTION_STRIPES = 4096;
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, Long> idsByNumber;
+    private final Cache<Long, Account> snapshots;
+    private final AtomicLong evictionClock = new AtomicLong();
+    private final AtomicLongArray lastEvictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    public AccountCache(AccountRepository accountRepository,
+                        @Value("${accounts.cache.max-size:100000}") long maxSize,
+                        @Value("${accounts.cache.snapshot-ttl-ms:5000}") long snapshotTtlMs) {
+        this.accountRepository = accountRepository;
+        this.idsByNumber = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.snapshots = Caffeine.newBuilder().maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(snapshotTtlMs)).recordStats().build();
+    }
+
+    public Optional<Account> getByNumber(String accountNumber) {
+        Long id = idsByNumber.getIfPresent(accountNumber);
+        if (id != null) {
+            Account snapshot = snapshots.getIfPresent(id);
+            if (snapshot != null) {
+                return Optional.of(copy(snapshot));
+            }
+        }
+        long readStart = evictionClock.get();
+        ReplicaRouting.clearReplicaRead();
+        Optional<Account> account = accountRepository.findByAccountNumber(accountNumber);
+        if (account.isPresent()) {
+            if (ReplicaRouting.replicaRead()) {
+                // Un saldo leido del replica puede ir por detras del primario: no se guarda como snapshot
+                idsByNumber.put(accountNumber, account.get().getId());
+            } else {
+                put(account.get(), readStart);
+            }
+        }
+        return account.map(AccountCache::copy);
+    }
+
+    // Resuelve solo el id: no necesita un snapshot vigente, basta con el mapeo numero -> id
+    public Optional<Long> getIdByNumber(String accountNumber) {
+        Long id = idsByNumber.getIfPresent(accountNumber);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        return getByNumber(accountNumber).map(Account::getId);
+    }
+
+    // Una lectura lenta puede llegar despues de que otra escritura haya guardado una version mas nueva:
+    // nunca se reemplaza un snapshot por uno de version anterior
+    public void put(Account account) {
+        put(account, Long.MAX_VALUE);
+    }
+
+    // La marca se comprueba dentro de compute: una invalidacion que marque despues de la comprobacion
+    // se serializa detras de ella en la misma clave y borra lo que se acaba de guardar
+    private void put(Account account, long readStart) {
+        idsByNumber.put(account.getAccountNumber(), account.getId());
+        Account snapshot = copy(account);
+        snapshots.asMap().compute(account.getId(), (id, cached) -> {
+            if (lastEvictions.get(stripe(id)) > readStart) {
+                return cached;
+            }
+            return cached == null || snapshot.getVersion() >= cached.getVersion() ? snapshot : cached;
+        });
+    }
+
+    // Invalida ahora y de nuevo al confirmar la transaccion, para que una lectura concurrente
+    // no deje en cache el saldo anterior al commit
+    public void evict(Long accountId) {
+        invalidate(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(accountId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long accountId) {
+        long stamp = evictionClock.incrementAndGet();
+        lastEvictions.accumulateAndGet(stripe(accountId), stamp, Math::max);
+        snapshots.invalidate(accountId);
+    }
+
+    public void evict(Account account) {
+        idsByNumber.invalidate(account.getAccountNumber());
+        evict(account.getId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, idsByNumber, "accounts.byNumber.ids");
+        CaffeineCacheMetrics.monitor(registry, snapshots, "accounts.byNumber.snapshots");
+    }
+
+    public CacheStats idStats() {
+        return idsByNumber.stats();
+    }
+
+    public CacheStats snapshotStats() {
+        return snapshots.stats();
+    }
+
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    private static int stripe(Long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 52) & (EVICTION_STRIPES - 1);
+    }
+
+    private static Account copy(Account account) {
+        Account copy = new Account(account.getId(), account.getAccountNumber(), account.getBalance(),
+                account.getTypeAccount(), account.getCustomerId());
+        copy.setVersion(account.getVersion());
+        return copy;
+    }
+}
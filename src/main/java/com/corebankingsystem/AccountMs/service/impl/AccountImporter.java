@@ -0,0 +1,283 @@
+package com.corebankingsystem.AccountMs.service.impl;
+
+import com.corebankingsystem.AccountMs.DTO.AccountImportErrorDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountImportResultDTO;
+import com.corebankingsystem.AccountMs.client.CustomerClient;
+import com.corebankingsystem.AccountMs.client.CustomerServiceUnavailableException;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
+import com.corebankingsystem.AccountMs.repository.AccountBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Apertura masiva de cuentas desde CSV (customerId,typeAccount,balance) o NDJSON. La entrada se lee
+// linea a linea y se procesa por bloques de accounts.import.batch-size filas: los clientes distintos del
+// bloque se validan una sola vez, las cuentas se insertan en lotes JDBC y cada bloque es una transaccion.
+// Las filas invalidas se informan con su numero de linea y no detienen la importacion; si falla el INSERT de un
+// bloque se reintenta fila a fila para senalar solo las que fallan. La respuesta lista como mucho
+// accounts.import.max-errors errores, aunque `failed` las cuenta todas. Con shards el bloque se parte por shard
+// del cliente y cada parte es su propia transaccion en su base.
+@Component
+public class AccountImporter {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final EntityManager entityManager;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountBatchRepository accountBatchRepository;
+    private final CustomerClient customerClient;
+    private final OutboxWriter outboxWriter;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public AccountImporter(EntityManager entityManager,
+                           AccountNumberAllocator accountNumberAllocator,
+                           AccountBatchRepository accountBatchRepository,
+                           CustomerClient customerClient,
+                           OutboxWriter outboxWriter,
+                           ShardRouter shardRouter,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${accounts.import.batch-size:500}") int batchSize,
+                           @Value("${accounts.import.max-errors:1000}") int maxErrors) {
+        this.entityManager = entityManager;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.accountBatchRepository = accountBatchRepository;
+        this.customerClient = customerClient;
+        this.outboxWriter = outboxWriter;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public AccountImportResultDTO importAccounts(Reader input, MediaType format) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(format);
+        BufferedReader reader = new BufferedReader(input);
+        ErrorLog errors = new ErrorLog(maxErrors);
+        List<Row> chunk = new ArrayList<>(batchSize);
+        long received = 0;
+        long imported = 0;
+        long lineNumber = 0;
+        boolean firstRow = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (csv && firstRow && isCsvHeader(line)) {
+                firstRow = false;
+                continue;
+            }
+            firstRow = false;
+            received++;
+            try {
+                chunk.add(csv ? parseCsv(lineNumber, line) : parseJson(lineNumber, line));
+            } catch (IllegalArgumentException e) {
+                errors.add(lineNumber, e.getMessage());
+            }
+            if (chunk.size() == batchSize) {
+                imported += importChunk(chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, errors);
+        }
+        return new AccountImportResultDTO(received, imported, errors.count, errors.listed);
+    }
+
+    private int importChunk(List<Row> chunk, ErrorLog errors) {
+        Map<Long, String> rejectedCustomers = validateCustomers(chunk);
+        Map<Integer, List<Row>> validByShard = new TreeMap<>();
+        for (Row row : chunk) {
+            String rejection = rejectedCustomers.get(row.customerId);
+            if (rejection == null) {
+                validByShard.computeIfAbsent(shardRouter.shardForCustomer(row.customerId), shard -> new ArrayList<>()).add(row);
+            } else {
+                errors.add(row.line, rejection);
+            }
+        }
+        int imported = 0;
+        for (Map.Entry<Integer, List<Row>> shard : validByShard.entrySet()) {
+            imported += shardRouter.onShard(shard.getKey(), () -> insertInTransaction(shard.getValue(), errors));
+        }
+        return imported;
+    }
+
+    // flush() lanza la PersistenceException de Hibernate sin traducir a DataAccessException, asi que se capturan
+    // las dos. Un bloque fallido se repite fila a fila: las filas buenas se guardan y solo se informan las malas.
+    // Los numeros de cuenta se piden antes de abrir la transaccion, por la misma razon que en createAccount
+    private int insertInTransaction(List<Row> valid, ErrorLog errors) {
+        List<String> accountNumbers = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            accountNumbers.add(accountNumberAllocator.next());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid, accountNumbers));
+            return valid.size();
+        } catch (DataAccessException | PersistenceException e) {
+            if (valid.size() == 1) {
+                errors.add(valid.get(0).line, "The account could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return 0;
+            }
+            int imported = 0;
+            for (Row row : valid) {
+                imported += insertInTransaction(List.of(row), errors);
+            }
+            return imported;
+        }
+    }
+
+    // Una llamada (o acierto de cache) por cliente distinto del bloque, no por fila
+    private Map<Long, String> validateCustomers(List<Row> chunk) {
+        Set<Long> customerIds = new LinkedHashSet<>();
+        for (Row row : chunk) {
+            customerIds.add(row.customerId);
+        }
+        Map<Long, String> rejected = new HashMap<>();
+        for (Long customerId : customerIds) {
+            try {
+                if (!customerClient.customerExists(customerId)) {
+                    rejected.put(customerId, "The customer ID does not exist");
+                }
+            } catch (CustomerServiceUnavailableException e) {
+                rejected.put(customerId, "An error occurred while validating the customer ID");
+            }
+        }
+        return rejected;
+    }
+
+    // Los ids salen del generador agrupado al hacer persist, asi que flush() envia los INSERT en lotes;
+    // la apertura se registra en el diario con otro lote JDBC. No se guardan fotos de saldo: el saldo
+    // historico de estas cuentas se reconstruye desde su movimiento OPENING.
+    private void insert(List<Row> rows, List<String> accountNumbers) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Account> accounts = new ArrayList<>(rows.size());
+        List<AccountMovement> openings = new ArrayList<>(rows.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Account account = new Account(null, accountNumbers.get(i), row.balance, row.typeAccount, row.customerId);
+            entityManager.persist(account);
+            accounts.add(account);
+            openings.add(new AccountMovement(null, account.getId(), AccountMovement.MovementType.OPENING, row.balance, now));
+        }
+        entityManager.flush();
+        accountBatchRepository.insertMovements(openings);
+        outboxWriter.opened(accounts);
+        entityManager.clear();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = line.trim();
+        return !first.isEmpty() && !Character.isDigit(first.charAt(0)) && first.charAt(0) != '-';
+    }
+
+    private static Row parseCsv(long line, String text) {
+        String[] fields = text.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 3 columns (customerId,typeAccount,balance) but found " + fields.length);
+        }
+        return row(line, fields[0].trim(), fields[1].trim(), fields[2].trim());
+    }
+
+    private Row parseJson(long line, String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return row(line, node.path("customerId").asText(), node.path("typeAccount").asText(), node.path("balance").asText());
+    }
+
+    private static Row row(long line, String customerId, String typeAccount, String balance) {
+        long parsedCustomerId;
+        try {
+            parsedCustomerId = Long.parseLong(customerId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid customerId: " + customerId);
+        }
+        Account.TypeAccount parsedType;
+        try {
+            parsedType = Account.TypeAccount.valueOf(typeAccount);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid typeAccount: " + typeAccount);
+        }
+        long parsedBalance;
+        try {
+            parsedBalance = Money.parseMinor(balance);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid balance: " + balance);
+        }
+        if (parsedBalance < parsedType.getOverdraftFloor()) {
+            throw new IllegalArgumentException("The balance is below the minimum allowed for a " + parsedType + " account");
+        }
+        return new Row(line, parsedCustomerId, parsedType, parsedBalance);
+    }
+
+    // Errores de la importacion: cuenta todos pero solo guarda los primeros, para que un fichero entero de
+    // filas malas no convierta la respuesta en una lista de millones de entradas
+    private static final class ErrorLog {
+        private final int max;
+        private final List<AccountImportErrorDTO> listed = new ArrayList<>();
+        private long count;
+
+        private ErrorLog(int max) {
+            this.max = max;
+        }
+
+        private void add(long line, String message) {
+            count++;
+            if (listed.size() < max) {
+                listed.add(new AccountImportErrorDTO(line, message));
+            }
+        }
+    }
+
+    private static final class Row {
+        private final long line;
+        private final long customerId;
+        private final Account.TypeAccount typeAccount;
+        private final long balance;
+
+        private Row(long line, long customerId, Account.TypeAccount typeAccount, long balance) {
+            this.line = line;
+            this.customerId = customerId;
+            this.typeAccount = typeAccount;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.corebankingsystem.AccountMs.service.impl;
+
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.repository.AccountNumberBlockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Generador de numeros de cuenta sin colisiones: reserva rangos en la base de datos por bloques
+// y los entrega en memoria sin bloqueos. Solo se toca la base de datos al agotarse un bloque,
+// por lo que abrir una cuenta no necesita consultar si el numero ya existe. Con reparto en shards cada
+// shard reserva en su propia tabla y sus numeros llevan el shard delante, asi que no pueden coincidir.
+@Component
+public class AccountNumberAllocator {
+
+    static final String SEQUENCE_NAME = "account_number";
+
+    private final AccountNumberBlockRepository blockRepository;
+    private final long blockSize;
+    private final long startValue;
+    private final boolean checkDigit;
+    private final ShardRouter shardRouter;
+    private final ConcurrentMap<Integer, AtomicReference<Block>> blocks = new ConcurrentHashMap<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public AccountNumberAllocator(AccountNumberBlockRepository blockRepository,
+                                  @Value("${accounts.number.block-size:100}") long blockSize,
+                                  @Value("${accounts.number.start:1000000000}") long startValue,
+                                  @Value("${accounts.number.check-digit:true}") boolean checkDigit,
+                                  ShardRouter shardRouter) {
+        this.blockRepository = blockRepository;
+        this.blockSize = blockSize;
+        this.startValue = startValue;
+        this.checkDigit = checkDigit;
+        this.shardRouter = shardRouter;
+    }
+
+    // El shard es el fijado por el llamador. Llamar fuera de una transaccion: la reserva de un bloque abre la suya
+    // y necesita otra conexion, que no debe esperar a las que retienen los hilos bloqueados en refillLock
+    public String next() {
+        int shard = shardRouter.currentShard();
+        AtomicReference<Block> current = blocks.computeIfAbsent(shard, key -> new AtomicReference<>(new Block(0L, 0L)));
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return format(shardRouter.accountNumberPrefix(shard) + value);
+            }
+            refill(current, block);
+        }
+    }
+
+    // Solo un hilo reserva el siguiente bloque; los demas reintentan sobre el bloque nuevo.
+    // ReentrantLock y no synchronized: la reserva hace JDBC y un monitor fijaria el hilo virtual a su carrier
+    private void refill(AtomicReference<Block> current, Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() == exhausted) {
+                long start = blockRepository.reserve(SEQUENCE_NAME, blockSize, startValue);
+                current.set(new Block(start, start + blockSize));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private String format(String number) {
+        if (checkDigit) {
+            return number + luhnDigit(number);
+        }
+        return number;
+    }
+
+    // Digito verificador Luhn (mod 10) para detectar errores de digitacion
+    static int luhnDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean hasValidCheckDigit(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2) {
+            return false;
+        }
+        String body = accountNumber.substring(0, accountNumber.length() - 1);
+        return luhnDigit(body) == accountNumber.charAt(accountNumber.length() - 1) - '0';
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,84 +1,288 @@
 package com.corebankingsystem.AccountMs.service.impl;
 
+import com.corebankingsystem.AccountMs.DTO.AccountImportResultDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountPageDTO;
+import com.corebankingsystem.AccountMs.DTO.AccountTypeSummaryDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementResultDTO;
+import com.corebankingsystem.AccountMs.DTO.CustomerSummaryDTO;
+import com.corebankingsystem.AccountMs.DTO.TransferResultDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.Money;
 import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
+import com.corebankingsystem.AccountMs.repository.AccountBatchRepository;
+import com.corebankingsystem.AccountMs.repository.AccountCursorRepository;
 import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.repository.AccountTypeTotals;
 import com.corebankingsystem.AccountMs.service.AccountService;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 @Service
 public class AccountServiceImpl implements AccountService {
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private AccountRepository accountRepository;
 
-    // Metodo para crear una nueva cuenta
+    @Autowired
+    private AccountCursorRepository accountCursorRepository;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private MovementJournal movementJournal;
+
+    @Autowired
+    private AccountBatchRepository accountBatchRepository;
+
+    @Autowired
+    private AccountImporter accountImporter;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${accounts.statement.page-size:500}")
+    private int statementPageSize;
+
+    // Metodo para crear una nueva cuenta. El numero se pide antes de abrir la transaccion: si toca reservar
+    // un bloque nuevo (en su propia transaccion), ni este hilo ni los que esperan al allocator retienen ya una
+    // conexion del pool, asi que muchas altas a la vez en el limite de un bloque no agotan el pool
     @Override
-    public Account createAccount(double balance, Account.TypeAccount typeAccount, long customerId) {
-        String accountNumber = generateAccountNumber();
-        while (accountRepository.existsByAccountNumber(accountNumber)) {
-            accountNumber = generateAccountNumber(); // Genera un nuevo número si ya existe
-        }
-        Account account = new Account(null, accountNumber, balance, typeAccount, customerId);
-        return accountRepository.save(account);
+    public Account createAccount(long balance, Account.TypeAccount typeAccount, long customerId) {
+        return shardRouter.onCustomer(customerId, () -> {
+            String accountNumber = accountNumberAllocator.next(); // Unico por construccion, sin consultar la base de datos
+            return transactionTemplate.execute(status -> {
+                Account account = accountRepository.save(new Account(null, accountNumber, balance, typeAccount, customerId));
+                movementJournal.record(account, AccountMovement.MovementType.OPENING, balance);
+                outboxWriter.opened(account);
+                return account;
+            });
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Account> getAccounts() {
-        return accountRepository.findAll();
+        List<Account> accounts = new ArrayList<>();
+        for (List<Account> shardAccounts : shardRouter.fanOut(accountRepository::findAll)) {
+            accounts.addAll(shardAccounts);
+        }
+        return accounts;
     }
     @Override
+    @Transactional(readOnly = true)
     public Optional<Account> getAccountId(Long id) {
+        shardRouter.bindAccount(id);
         return accountRepository.findById(id);
     }
 
+    // El saldo se actualiza con una sola sentencia UPDATE, sin leer-modificar-escribir en Java
     @Override
     @Transactional
-    public ResponseEntity<Object> deposit(Long accountId, Double amount) {
-        Account account = accountRepository.findById(accountId).orElseThrow(() -> new RuntimeException("The account ID does not exist or is invalid."));
+    public ResponseEntity<Object> deposit(Long accountId, long amount) {
+        shardRouter.bindAccount(accountId);
         if (amount <= 0) {
             String message = "Invalid deposit amount. Amount must be positive.";
             return ResponseEntity.status(400).body(message);
         }
-        account.deposit(amount);
-        accountRepository.save(account);
+        if (accountRepository.depositBalance(accountId, amount) == 0) {
+            throw new RuntimeException("The account ID does not exist or is invalid.");
+        }
+        accountCache.evict(accountId);
+        Account account = accountRepository.findById(accountId).orElseThrow(() -> new RuntimeException("The account ID does not exist or is invalid."));
+        movementJournal.record(account, AccountMovement.MovementType.DEPOSIT, amount);
+        outboxWriter.balanceChanged(account);
         return ResponseEntity.status(200).body(account);
     }
 
+    // La validacion del sobregiro se hace en la misma sentencia UPDATE; si no se actualiza ninguna fila
+    // se distingue entre cuenta inexistente y saldo insuficiente
     @Override
     @Transactional
-    public ResponseEntity<Object> withdraw(Long accountId, Double amount) {
-        Account account = accountRepository.findById(accountId).orElseThrow(() -> new RuntimeException("The account ID does not exist or is invalid."));
+    public ResponseEntity<Object> withdraw(Long accountId, long amount) {
+        shardRouter.bindAccount(accountId);
         if (amount <= 0) {
             String message = "Invalid withdraw amount. Amount must be positive.";
             return ResponseEntity.status(400).body(message);
         }
-        if (account.getTypeAccount() == Account.TypeAccount.ahorros) {
-            if (account.getBalance() - amount < 0) {
-                String message = "Withdrawals that result in a negative balance are not allowed for savings accounts.";
-                return ResponseEntity.status(422).body(message);
+        int updated = accountRepository.withdrawIfAllowed(accountId, amount);
+        Account account = accountRepository.findById(accountId).orElseThrow(() -> new RuntimeException("The account ID does not exist or is invalid."));
+        if (updated == 0) {
+            return ResponseEntity.status(422).body(account.getTypeAccount().getOverdraftMessage());
+        }
+        accountCache.evict(accountId);
+        movementJournal.record(account, AccountMovement.MovementType.WITHDRAWAL, -amount);
+        outboxWriter.balanceChanged(account);
+        return ResponseEntity.status(200).body(account);
+    }
+
+    // Debito y credito en una sola transaccion. Las dos filas se bloquean en orden de id (igual que los lotes),
+    // asi transferencias cruzadas A->B y B->A no pueden interbloquearse; el sobregiro sigue las reglas de withdraw
+    @Override
+    @Transactional
+    public ResponseEntity<Object> transfer(Long sourceAccountId, Long targetAccountId, long amount) {
+        if (amount <= 0) {
+            String message = "Invalid transfer amount. Amount must be positive.";
+            return ResponseEntity.status(400).body(message);
+        }
+        if (sourceAccountId.equals(targetAccountId)) {
+            String message = "The source and target accounts must be different.";
+            return ResponseEntity.status(400).body(message);
+        }
+        // Cada shard es una base distinta: una transferencia entre shards necesitaria una transaccion distribuida
+        if (shardRouter.shardOfId(sourceAccountId) != shardRouter.shardOfId(targetAccountId)) {
+            String message = "Transfers between accounts on different shards are not supported.";
+            return ResponseEntity.status(422).body(message);
+        }
+        shardRouter.bindAccount(sourceAccountId);
+        Map<Long, Account> locked = new HashMap<>();
+        for (Account account : accountBatchRepository.lockByIds(Arrays.asList(sourceAccountId, targetAccountId))) {
+            locked.put(account.getId(), account);
+        }
+        Account source = locked.get(sourceAccountId);
+        Account target = locked.get(targetAccountId);
+        if (source == null || target == null) {
+            return ResponseEntity.status(404).body("The account ID does not exist or is invalid.");
+        }
+        if (!source.getTypeAccount().allowsWithdrawal(source.getBalance(), amount)) {
+            return ResponseEntity.status(422).body(source.getTypeAccount().getOverdraftMessage());
+        }
+        source.setBalance(Money.subtract(source.getBalance(), amount));
+        target.setBalance(Money.add(target.getBalance(), amount));
+        Instant now = Instant.now();
+        accountBatchRepository.applyMovements(Arrays.asList(source, target), Arrays.asList(
+                new AccountMovement(null, sourceAccountId, AccountMovement.MovementType.TRANSFER_OUT, -amount, now),
+                new AccountMovement(null, targetAccountId, AccountMovement.MovementType.TRANSFER_IN, amount, now)));
+        outboxWriter.balanceChanged(Arrays.asList(source, target));
+        accountCache.evict(sourceAccountId);
+        accountCache.evict(targetAccountId);
+        return ResponseEntity.status(200).body(new TransferResultDTO(sourceAccountId, targetAccountId, amount,
+                source.getBalance(), target.getBalance()));
+    }
+
+    // Aplica todos los movimientos en una transaccion: las cuentas se resuelven y bloquean de una vez,
+    // las reglas de sobregiro se evaluan en memoria en el orden recibido y la escritura usa JDBC batch.
+    // Con shards el lote se aplica en el shard de su primera cuenta; los movimientos de otros shards se rechazan
+    @Override
+    @Transactional
+    public List<BatchMovementResultDTO> applyBatch(List<BatchMovementDTO> movements) {
+        int shard = batchShard(movements);
+        shardRouter.bindShard(shard);
+        Set<String> accountNumbers = new TreeSet<>();
+        for (BatchMovementDTO movement : movements) {
+            if (movement.getAccountNumber() != null && shardRouter.shardOfAccountNumber(movement.getAccountNumber()) == shard) {
+                accountNumbers.add(movement.getAccountNumber());
+            }
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountBatchRepository.lockByAccountNumbers(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        Map<Long, Account> changed = new TreeMap<>();
+        List<AccountMovement> journal = new ArrayList<>();
+        List<BatchMovementResultDTO> results = new ArrayList<>(movements.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < movements.size(); i++) {
+            BatchMovementDTO movement = movements.get(i);
+            if (movement.getAccountNumber() != null && shardRouter.shardOfAccountNumber(movement.getAccountNumber()) != shard) {
+                String message = "The account belongs to a different shard than the rest of the batch.";
+                results.add(new BatchMovementResultDTO(i, movement.getAccountNumber(), 422, message, null));
+                continue;
             }
-        } else if (account.getTypeAccount() == Account.TypeAccount.corriente) {
-            if (account.getBalance() - amount < -500) {
-                String message = "Withdrawals exceeding minus 500 below the balance are not allowed for checking account (overdrafts are permitted).";
-                return ResponseEntity.status(422).body(message);
+            results.add(applyBatchItem(i, movement, accounts, changed, journal, now));
+        }
+        if (!changed.isEmpty()) {
+            accountBatchRepository.applyMovements(changed.values(), journal);
+            outboxWriter.balanceChanged(changed.values());
+            changed.keySet().forEach(accountCache::evict);
+        }
+        return results;
+    }
+
+    @Override
+    public AccountImportResultDTO importAccounts(Reader reader, MediaType format) throws IOException {
+        return accountImporter.importAccounts(reader, format);
+    }
+
+    private int batchShard(List<BatchMovementDTO> movements) {
+        for (BatchMovementDTO movement : movements) {
+            if (movement.getAccountNumber() != null) {
+                return shardRouter.shardOfAccountNumber(movement.getAccountNumber());
             }
         }
-        account.withdraw(amount);
-        accountRepository.save(account);
-        return ResponseEntity.status(200).body(account);
+        return 0;
+    }
+
+    private BatchMovementResultDTO applyBatchItem(int index, BatchMovementDTO item, Map<String, Account> accounts,
+                                                  Map<Long, Account> changed, List<AccountMovement> journal, Instant now) {
+        Account account = accounts.get(item.getAccountNumber());
+        if (account == null) {
+            return new BatchMovementResultDTO(index, item.getAccountNumber(), 404, "Account not found", null);
+        }
+        if (item.getAmount() <= 0 || !isBatchMovementType(item.getType())) {
+            String message = "Invalid movement. Type must be DEPOSIT or WITHDRAWAL and amount must be positive.";
+            return new BatchMovementResultDTO(index, item.getAccountNumber(), 400, message, null);
+        }
+        long signedAmount = item.getAmount();
+        if (item.getType() == AccountMovement.MovementType.WITHDRAWAL) {
+            if (!account.getTypeAccount().allowsWithdrawal(account.getBalance(), item.getAmount())) {
+                return new BatchMovementResultDTO(index, item.getAccountNumber(), 422, account.getTypeAccount().getOverdraftMessage(), null);
+            }
+            signedAmount = -signedAmount;
+        }
+        account.setBalance(Money.add(account.getBalance(), signedAmount));
+        changed.put(account.getId(), account);
+        journal.add(new AccountMovement(null, account.getId(), item.getType(), signedAmount, now));
+        return new BatchMovementResultDTO(index, item.getAccountNumber(), 200, null, account.getBalance());
+    }
+
+    private static boolean isBatchMovementType(AccountMovement.MovementType type) {
+        return type == AccountMovement.MovementType.DEPOSIT || type == AccountMovement.MovementType.WITHDRAWAL;
     }
 
     @Override
+    @Transactional
     public ResponseEntity<Object> deleteAccount(Long id) {
+        shardRouter.bindAccount(id);
         Optional<Account> account = getAccountId(id);
         if (account.isPresent()){
             accountRepository.deleteById(id);
+            outboxWriter.deleted(account.get());
+            accountCache.evict(account.get());
             String message = "Account successfully deleted";
             return ResponseEntity.status(200).body(message);
         }
@@ -87,19 +291,104 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<List<Account>> getCustomerId(Long id) {
+        shardRouter.bindCustomer(id);
         return accountRepository.findByCustomerId(id);
     }
 
-    //Metodo para generar el numero de cuenta
-    private String generateAccountNumber() {
-        Random random = new Random();
-        int number = 100000 + random.nextInt(900000); // Genera un número entre 100000 y 999999
-        return String.valueOf(number);
+    // Resumen calculado por la base de datos: no se hidrata ninguna entidad Account
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerSummaryDTO getCustomerSummary(long customerId) {
+        shardRouter.bindCustomer(customerId);
+        List<AccountTypeSummaryDTO> byType = new ArrayList<>();
+        long accounts = 0;
+        long balance = 0;
+        for (AccountTypeTotals totals : accountRepository.summarizeByCustomerId(customerId)) {
+            byType.add(new AccountTypeSummaryDTO(totals.getTypeAccount(), totals.getAccounts(), totals.getBalance()));
+            accounts += totals.getAccounts();
+            balance = Money.add(balance, totals.getBalance());
+        }
+        return new CustomerSummaryDTO(customerId, accounts, balance, byType);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Account> getAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber);
+        shardRouter.bindAccountNumber(accountNumber);
+        return accountCache.getByNumber(accountNumber);
+    }
+
+    @Override
+    public Optional<Long> getAccountIdByNumber(String accountNumber) {
+        return shardRouter.onAccountNumber(accountNumber, () -> accountCache.getIdByNumber(accountNumber));
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", accountCache.size());
+        stats.put("idHits", accountCache.idStats().hitCount());
+        stats.put("idMisses", accountCache.idStats().missCount());
+        stats.put("snapshotHits", accountCache.snapshotStats().hitCount());
+        stats.put("snapshotMisses", accountCache.snapshotStats().missCount());
+        stats.put("evictions", accountCache.snapshotStats().evictionCount());
+        return stats;
+    }
+
+    // Pagina por keyset: se pide un registro extra para saber si existe una pagina siguiente. Sin cliente la
+    // pagina se pide a todos los shards a la vez; sus rangos de id no se solapan, asi que concatenar en orden
+    // de shard ya da el orden global por id
+    @Override
+    @Transactional(readOnly = true)
+    public AccountPageDTO getAccountsPage(Long after, int limit, Account.TypeAccount typeAccount, Long customerId) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = after != null ? after : 0L;
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Account> accounts;
+        if (customerId != null) {
+            shardRouter.bindCustomer(customerId);
+            accounts = accountRepository.findPageAfter(afterId, typeAccount, customerId, page);
+        } else {
+            accounts = new ArrayList<>();
+            for (List<Account> shardPage : shardRouter.fanOut(() -> accountRepository.findPageAfter(afterId, typeAccount, null, page))) {
+                accounts.addAll(shardPage);
+            }
+        }
+        Long nextCursor = null;
+        if (accounts.size() > size) {
+            accounts = accounts.subList(0, size);
+            nextCursor = accounts.get(size - 1).getId();
+        }
+        return new AccountPageDTO(accounts, nextCursor);
+    }
+
+    @Override
+    public long getBalanceBefore(Long accountId, Instant before) {
+        return shardRouter.onAccount(accountId, () -> movementJournal.balanceBefore(accountId, before));
+    }
+
+    @Override
+    public void streamStatement(Long accountId, Instant from, Instant to, Consumer<AccountMovement> consumer) {
+        shardRouter.onAccount(accountId, () -> {
+            movementJournal.forEachMovement(accountId, from, to, statementPageSize, consumer);
+            return null;
+        });
+    }
+
+    @Override
+    public void streamAccounts(Account.TypeAccount typeAccount, Long customerId, Consumer<Account> consumer) {
+        if (customerId != null) {
+            shardRouter.onCustomer(customerId, () -> {
+                accountCursorRepository.forEach(typeAccount, customerId, consumer);
+                return null;
+            });
+            return;
+        }
+        shardRouter.onEachShard(() -> {
+            accountCursorRepository.forEach(typeAccount, null, consumer);
+            return null;
+        });
     }
 }
@@ -0,0 +1,151 @@
+package com.corebankingsystem.AccountMs.service.impl;
+
+import com.corebankingsystem.AccountMs.DTO.TransferResultDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.IdempotencyRecord;
+import com.corebankingsystem.AccountMs.repository.IdempotencyRepository;
+import com.corebankingsystem.AccountMs.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Deduplicacion de tDeposit / tWithdrawal. La clave se inserta al inicio de la misma transaccion
+// que mueve el saldo; un reintento encuentra la respuesta guardada (primero en la cache en memoria,
+// luego en la tabla) y la devuelve sin tocar la cuenta.
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, IdempotencyRecord> recent;
+    private final Duration retention;
+
+    public IdempotencyServiceImpl(IdempotencyRepository idempotencyRepository,
+                                  ShardRouter shardRouter,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${accounts.idempotency.cache-size:50000}") long cacheSize,
+                                  @Value("${accounts.idempotency.retention-hours:24}") long retentionHours) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.recent = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(retention).build();
+    }
+
+    @Override
+    public ResponseEntity<Object> execute(String idempotencyKey, String fingerprint, Supplier<ResponseEntity<Object>> operation) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return operation.get();
+        }
+        Optional<IdempotencyRecord> stored = lookup(idempotencyKey);
+        if (stored.isPresent()) {
+            return replay(stored.get(), fingerprint);
+        }
+        try {
+            IdempotencyRecord record = transactionTemplate.execute(status -> {
+                idempotencyRepository.claim(idempotencyKey, fingerprint, Instant.now());
+                ResponseEntity<Object> response = operation.get();
+                if (response.getStatusCode().value() == 404) {
+                    // Nada cambio: se libera la clave para que un reintento posterior pueda ejecutarse
+                    status.setRollbackOnly();
+                }
+                return complete(idempotencyKey, fingerprint, response);
+            });
+            if (record.getStatus() != 404) {
+                recent.put(idempotencyKey, record);
+            }
+            return toResponse(record);
+        } catch (DuplicateKeyException e) {
+            // Otra peticion con la misma clave se confirmo mientras esperabamos el bloqueo
+            return replay(lookup(idempotencyKey).orElseThrow(() -> e), fingerprint);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${accounts.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        int total = 0;
+        for (int deleted : shardRouter.onEachShard(() -> idempotencyRepository.deleteCreatedBefore(cutoff))) {
+            total += deleted;
+        }
+        return total;
+    }
+
+    private Optional<IdempotencyRecord> lookup(String idempotencyKey) {
+        IdempotencyRecord cached = recent.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<IdempotencyRecord> stored = idempotencyRepository.find(idempotencyKey);
+        stored.ifPresent(record -> recent.put(idempotencyKey, record));
+        return stored;
+    }
+
+    private IdempotencyRecord complete(String idempotencyKey, String fingerprint, ResponseEntity<Object> response) {
+        IdempotencyRecord.BodyType bodyType = IdempotencyRecord.BodyType.TEXT;
+        String body = String.valueOf(response.getBody());
+        if (response.getBody() instanceof Account) {
+            bodyType = IdempotencyRecord.BodyType.ACCOUNT;
+            body = writeJson(response.getBody());
+        } else if (response.getBody() instanceof TransferResultDTO) {
+            bodyType = IdempotencyRecord.BodyType.TRANSFER;
+            body = writeJson(response.getBody());
+        }
+        int status = response.getStatusCode().value();
+        idempotencyRepository.complete(idempotencyKey, status, bodyType, body);
+        return new IdempotencyRecord(idempotencyKey, fingerprint, status, bodyType, body, Instant.now());
+    }
+
+    private ResponseEntity<Object> replay(IdempotencyRecord record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            String message = "The Idempotency-Key was already used for a different request.";
+            return ResponseEntity.status(422).body(message);
+        }
+        return toResponse(record);
+    }
+
+    private ResponseEntity<Object> toResponse(IdempotencyRecord record) {
+        if (record.getBodyType() == IdempotencyRecord.BodyType.ACCOUNT) {
+            return ResponseEntity.status(record.getStatus()).body(readJson(record.getBody(), Account.class));
+        }
+        if (record.getBodyType() == IdempotencyRecord.BodyType.TRANSFER) {
+            return ResponseEntity.status(record.getStatus()).body(readJson(record.getBody(), TransferResultDTO.class));
+        }
+        return ResponseEntity.status(record.getStatus()).body(record.getBody());
+    }
+
+    private <T> T readJson(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not a valid " + type.getSimpleName(), e);
+        }
+    }
+
+    private String writeJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotent response could not be stored", e);
+        }
+    }
+}
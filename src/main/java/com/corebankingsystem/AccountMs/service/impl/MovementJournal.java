@@ -0,0 +1,69 @@
+package com.corebankingsystem.AccountMs.service.impl;
+
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.model.entity.BalanceSnapshot;
+import com.corebankingsystem.AccountMs.repository.AccountMovementRepository;
+import com.corebankingsystem.AccountMs.repository.BalanceSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Escribe el diario de movimientos y las fotos periodicas de saldo, y reconstruye saldos historicos
+@Component
+public class MovementJournal {
+
+    @Autowired
+    private AccountMovementRepository movementRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    // Cada cuantas actualizaciones de saldo (version de la cuenta) se guarda una foto
+    @Value("${accounts.journal.snapshot-interval:100}")
+    private long snapshotInterval;
+
+    // Debe llamarse dentro de la transaccion que modifico el saldo, con la cuenta ya actualizada.
+    // Los caminos por lotes no pasan por aqui: AccountBatchRepository.applyMovements aplica la misma regla
+    public AccountMovement record(Account account, AccountMovement.MovementType type, long amount) {
+        AccountMovement movement = movementRepository.save(
+                new AccountMovement(null, account.getId(), type, amount, Instant.now()));
+        if (type == AccountMovement.MovementType.OPENING || account.getVersion() % snapshotInterval == 0) {
+            snapshotRepository.save(new BalanceSnapshot(null, account.getId(), movement.getId(),
+                    account.getBalance(), movement.getCreatedAt()));
+        }
+        return movement;
+    }
+
+    // Saldo considerando solo los movimientos anteriores a 'before'
+    public long balanceBefore(long accountId, Instant before) {
+        Optional<BalanceSnapshot> snapshot = snapshotRepository.findFirstByAccountIdAndTakenAtLessThanOrderByIdDesc(accountId, before);
+        long base = 0L;
+        long afterId = 0L;
+        if (snapshot.isPresent()) {
+            base = snapshot.get().getBalance();
+            afterId = snapshot.get().getLastMovementId();
+        }
+        return Money.add(base, movementRepository.sumAmountsAfter(accountId, afterId, before));
+    }
+
+    // Recorre los movimientos del rango por paginas de keyset, sin cargar el rango completo en memoria
+    public void forEachMovement(long accountId, Instant from, Instant to, int pageSize, Consumer<AccountMovement> consumer) {
+        long afterId = 0L;
+        List<AccountMovement> page;
+        do {
+            page = movementRepository.findStatementPage(accountId, from, to, afterId, PageRequest.of(0, pageSize));
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+}
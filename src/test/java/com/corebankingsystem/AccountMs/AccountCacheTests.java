@@ -0,0 +1,96 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.impl.AccountCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountCacheTests {
+
+	private AccountRepository accountRepository;
+	private AccountCache accountCache;
+
+	@BeforeEach
+	public void setUp() {
+		accountRepository = mock(AccountRepository.class);
+		accountCache = new AccountCache(accountRepository, 100, 200);
+		when(accountRepository.findByAccountNumber("123456"))
+				.thenReturn(Optional.of(new Account(1L, "123456", 100000L, Account.TypeAccount.ahorros, 1L)));
+	}
+
+	@Test
+	public void testGetByNumber_ReadThrough() {
+		assertEquals(100000L, accountCache.getByNumber("123456").get().getBalance());
+		assertEquals(100000L, accountCache.getByNumber("123456").get().getBalance());
+		verify(accountRepository, times(1)).findByAccountNumber("123456");
+		assertEquals(1, accountCache.snapshotStats().hitCount());
+	}
+
+	@Test
+	public void testGetIdByNumber_SurvivesBalanceEviction() {
+		accountCache.getByNumber("123456");
+		accountCache.evict(1L);
+		assertEquals(1L, accountCache.getIdByNumber("123456").get());
+		verify(accountRepository, times(1)).findByAccountNumber("123456");
+	}
+
+	@Test
+	public void testEvict_ReloadsSnapshot() {
+		accountCache.getByNumber("123456");
+		accountCache.evict(1L);
+		accountCache.getByNumber("123456");
+		verify(accountRepository, times(2)).findByAccountNumber("123456");
+	}
+
+	@Test
+	public void testGetByNumber_MissesAreNotCached() {
+		when(accountRepository.findByAccountNumber("000000")).thenReturn(Optional.empty());
+		assertFalse(accountCache.getByNumber("000000").isPresent());
+		assertFalse(accountCache.getIdByNumber("000000").isPresent());
+		verify(accountRepository, times(2)).findByAccountNumber("000000");
+	}
+
+	@Test
+	public void testPut_KeepsTheNewerVersion() {
+		Account newer = new Account(1L, "123456", 90000L, Account.TypeAccount.ahorros, 1L);
+		newer.setVersion(3L);
+		Account stale = new Account(1L, "123456", 100000L, Account.TypeAccount.ahorros, 1L);
+		stale.setVersion(2L);
+		accountCache.put(newer);
+		accountCache.put(stale);
+		assertEquals(90000L, accountCache.getByNumber("123456").get().getBalance());
+		verify(accountRepository, never()).findByAccountNumber("123456");
+	}
+
+	// Los cambios hechos en otro nodo no invalidan esta cache: el snapshot caduca solo
+	@Test
+	public void testGetByNumber_SnapshotExpires() throws InterruptedException {
+		accountCache.getByNumber("123456");
+		Thread.sleep(300L);
+		accountCache.getByNumber("123456");
+		verify(accountRepository, times(2)).findByAccountNumber("123456");
+	}
+
+	// Una escritura invalida mientras la lectura esta en curso: el saldo leido antes no se guarda
+	@Test
+	public void testGetByNumber_DoesNotCacheReadOverlappingEviction() {
+		when(accountRepository.findByAccountNumber("123456")).thenAnswer(invocation -> {
+			accountCache.evict(1L);
+			return Optional.of(new Account(1L, "123456", 100000L, Account.TypeAccount.ahorros, 1L));
+		});
+		assertEquals(100000L, accountCache.getByNumber("123456").get().getBalance());
+		assertEquals(0, accountCache.size());
+
+		when(accountRepository.findByAccountNumber("123456"))
+				.thenReturn(Optional.of(new Account(1L, "123456", 90000L, Account.TypeAccount.ahorros, 1L)));
+		assertEquals(90000L, accountCache.getByNumber("123456").get().getBalance());
+		assertEquals(90000L, accountCache.getByNumber("123456").get().getBalance());
+		verify(accountRepository, times(2)).findByAccountNumber("123456");
+	}
+}
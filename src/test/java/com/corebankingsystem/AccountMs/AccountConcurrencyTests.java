@@ -0,0 +1,121 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pruebas de concurrencia sobre la base H2 en memoria: muchas operaciones simultaneas sobre las mismas cuentas
+@SpringBootTest
+class AccountConcurrencyTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	public void testConcurrentDeposits_NoLostUpdates() throws Exception {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 1L);
+		List<Integer> statuses = runConcurrently(400, () -> accountService.deposit(account.getId(), 100L));
+		assertEquals(400, count(statuses, 200));
+		assertEquals(40000L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testConcurrentWithdrawals_SavingsNeverNegative() throws Exception {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 2L);
+		List<Integer> statuses = runConcurrently(300, () -> accountService.withdraw(account.getId(), 100L));
+		assertEquals(100, count(statuses, 200));
+		assertEquals(200, count(statuses, 422));
+		assertEquals(0L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testConcurrentWithdrawals_CheckingStopsAtOverdraftFloor() throws Exception {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 3L);
+		List<Integer> statuses = runConcurrently(200, () -> accountService.withdraw(account.getId(), 500L));
+		assertEquals(100, count(statuses, 200));
+		assertEquals(-50000L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testConcurrentTransfers_OverlappingPairsConserveMoney() throws Exception {
+		long[] ids = new long[4];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = accountService.createAccount(100000L, Account.TypeAccount.corriente, 4L).getId();
+		}
+		// Pares solapados y en ambos sentidos: sin bloqueo ordenado A->B y B->A se interbloquearian
+		int[][] pairs = {{0, 1}, {1, 0}, {1, 2}, {2, 1}, {2, 3}, {3, 0}, {0, 2}, {3, 1}};
+		int operations = 400;
+		AtomicInteger next = new AtomicInteger();
+		List<Integer> statuses = runConcurrently(operations, () -> {
+			int[] pair = pairs[next.getAndIncrement() % pairs.length];
+			return accountService.transfer(ids[pair[0]], ids[pair[1]], 100L);
+		});
+		assertEquals(operations, count(statuses, 200));
+
+		long[] expected = {100000L, 100000L, 100000L, 100000L};
+		for (int i = 0; i < operations; i++) {
+			int[] pair = pairs[i % pairs.length];
+			expected[pair[0]] -= 100L;
+			expected[pair[1]] += 100L;
+		}
+		long total = 0;
+		for (int i = 0; i < ids.length; i++) {
+			long balance = accountRepository.findById(ids[i]).get().getBalance();
+			assertEquals(expected[i], balance);
+			total += balance;
+		}
+		assertEquals(400000L, total);
+	}
+
+	@Test
+	public void testConcurrentTransfers_SavingsSourceNeverNegative() throws Exception {
+		Account source = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 5L);
+		Account target = accountService.createAccount(0L, Account.TypeAccount.ahorros, 6L);
+		List<Integer> statuses = runConcurrently(300, () -> accountService.transfer(source.getId(), target.getId(), 100L));
+		assertEquals(100, count(statuses, 200));
+		assertEquals(200, count(statuses, 422));
+		assertEquals(0L, accountRepository.findById(source.getId()).get().getBalance());
+		assertEquals(10000L, accountRepository.findById(target.getId()).get().getBalance());
+	}
+
+	private List<Integer> runConcurrently(int operations, Callable<ResponseEntity<Object>> operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+			for (int i = 0; i < operations; i++) {
+				futures.add(executor.submit(operation));
+			}
+			List<Integer> statuses = new ArrayList<>();
+			for (Future<ResponseEntity<Object>> future : futures) {
+				statuses.add(future.get(30, TimeUnit.SECONDS).getStatusCode().value());
+			}
+			return statuses;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long count(List<Integer> statuses, int status) {
+		return statuses.stream().filter(s -> s == status).count();
+	}
+}
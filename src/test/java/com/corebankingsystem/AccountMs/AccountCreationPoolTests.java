@@ -0,0 +1,48 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pool de 2 conexiones y bloques de numeros de 1: cada alta reserva un bloque. Si la reserva se hiciera con la
+// transaccion del alta abierta, las altas simultaneas ocuparian el pool y la reserva esperaria connection-timeout.
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.maximum-pool-size=2",
+		"spring.datasource.hikari.connection-timeout=2000",
+		"accounts.number.block-size=1"
+})
+class AccountCreationPoolTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	public void testConcurrentCreates_RefillWithoutExhaustingThePool() throws Exception {
+		// La primera alta reserva tambien el bloque de ids, que cubre el resto de la prueba
+		accountService.createAccount(0L, Account.TypeAccount.ahorros, 61L);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<Account>> futures = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			futures.add(pool.submit(() -> accountService.createAccount(100L, Account.TypeAccount.ahorros, 61L)));
+		}
+		Set<String> numbers = new HashSet<>();
+		for (Future<Account> future : futures) {
+			numbers.add(future.get(30, TimeUnit.SECONDS).getAccountNumber());
+		}
+		pool.shutdown();
+		assertEquals(40, numbers.size());
+	}
+}
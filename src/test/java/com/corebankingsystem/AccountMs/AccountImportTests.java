@@ -0,0 +1,134 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.AccountImportResultDTO;
+import com.corebankingsystem.AccountMs.DTO.CustomerSummaryDTO;
+import com.corebankingsystem.AccountMs.client.CustomerClient;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.repository.AccountMovementRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.corebankingsystem.AccountMs.service.impl.AccountNumberAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+// Importacion masiva de cuentas sobre la base H2 en memoria, con bloques de 2 filas para cubrir varios lotes
+@SpringBootTest(properties = {"accounts.import.batch-size=2", "accounts.import.max-errors=5"})
+class AccountImportTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountMovementRepository accountMovementRepository;
+
+	@MockBean
+	private CustomerClient customerClient;
+
+	@SpyBean
+	private AccountNumberAllocator accountNumberAllocator;
+
+	@Test
+	public void testImportCsv_ReportsErrorsPerLine() throws Exception {
+		when(customerClient.customerExists(anyLong())).thenReturn(true);
+		when(customerClient.customerExists(799L)).thenReturn(false);
+		// Las dos filas de 799 caen en el mismo bloque
+		String csv = "customerId,typeAccount,balance\n"
+				+ "701,ahorros,100.50\n"
+				+ "701,corriente,-20\n"
+				+ "799,ahorros,5\n"
+				+ "799,corriente,1\n"
+				+ "701,plazo,10\n"
+				+ "\n"
+				+ "701,ahorros,-1\n"
+				+ "701,ahorros,abc\n"
+				+ "702,ahorros,0\n";
+
+		AccountImportResultDTO result = accountService.importAccounts(new StringReader(csv), MediaType.parseMediaType("text/csv"));
+
+		assertEquals(8, result.getReceived());
+		assertEquals(3, result.getImported());
+		assertEquals(5, result.getFailed());
+		assertEquals(List.of(4L, 5L, 6L, 8L, 9L), result.getErrors().stream().map(e -> e.getLine()).sorted().collect(Collectors.toList()));
+		CustomerSummaryDTO summary = accountService.getCustomerSummary(701L);
+		assertEquals(2, summary.getAccounts());
+		assertEquals(8050L, summary.getBalance());
+		// Cada cliente distinto de un bloque se valida una sola vez
+		verify(customerClient, times(1)).customerExists(799L);
+	}
+
+	@Test
+	public void testImportNdjson_CreatesAccountsWithOpeningMovements() throws Exception {
+		when(customerClient.customerExists(anyLong())).thenReturn(true);
+		String ndjson = "{\"customerId\":711,\"typeAccount\":\"ahorros\",\"balance\":\"12.34\"}\n"
+				+ "{\"customerId\":711,\"typeAccount\":\"corriente\",\"balance\":0}\n"
+				+ "{\"customerId\":711,\"typeAccount\":\"ahorros\",\"balance\":1\n";
+
+		AccountImportResultDTO result = accountService.importAccounts(new StringReader(ndjson), MediaType.parseMediaType("application/x-ndjson"));
+
+		assertEquals(3, result.getReceived());
+		assertEquals(2, result.getImported());
+		assertEquals(3L, result.getErrors().get(0).getLine());
+		Optional<List<Account>> accounts = accountService.getCustomerId(711L);
+		assertEquals(2, accounts.get().size());
+		for (Account account : accounts.get()) {
+			assertTrue(accountService.getAccountByNumber(account.getAccountNumber()).isPresent());
+			assertEquals(account.getBalance(), accountMovementRepository.findAll().stream()
+					.filter(m -> m.getAccountId() == account.getId() && m.getType() == AccountMovement.MovementType.OPENING)
+					.mapToLong(AccountMovement::getAmount).sum());
+		}
+	}
+
+	// Un INSERT fallido (numero de cuenta repetido) no tumba la importacion: el bloque se repite fila a fila
+	@Test
+	public void testImportCsv_FailedInsertIsRetriedRowByRow() throws Exception {
+		when(customerClient.customerExists(anyLong())).thenReturn(true);
+		Account existing = accountService.createAccount(100L, Account.TypeAccount.ahorros, 720L);
+		// La tercera llamada es la primera fila del segundo bloque y la quinta su reintento
+		AtomicInteger calls = new AtomicInteger();
+		doAnswer(invocation -> {
+			int call = calls.incrementAndGet();
+			return call == 3 || call == 5 ? existing.getAccountNumber() : invocation.callRealMethod();
+		}).when(accountNumberAllocator).next();
+		String csv = "721,ahorros,1\n"
+				+ "721,ahorros,2\n"
+				+ "721,ahorros,3\n"
+				+ "721,ahorros,4\n";
+
+		AccountImportResultDTO result = accountService.importAccounts(new StringReader(csv), MediaType.parseMediaType("text/csv"));
+
+		assertEquals(4, result.getReceived());
+		assertEquals(3, result.getImported());
+		assertEquals(1, result.getFailed());
+		assertEquals(3L, result.getErrors().get(0).getLine());
+		assertEquals(700L, accountService.getCustomerSummary(721L).getBalance());
+	}
+
+	@Test
+	public void testImportCsv_ListsAtMostMaxErrors() throws Exception {
+		StringBuilder csv = new StringBuilder();
+		for (int i = 0; i < 8; i++) {
+			csv.append("731,plazo,1\n");
+		}
+
+		AccountImportResultDTO result = accountService.importAccounts(new StringReader(csv.toString()), MediaType.parseMediaType("text/csv"));
+
+		assertEquals(8, result.getReceived());
+		assertEquals(0, result.getImported());
+		assertEquals(8, result.getFailed());
+		assertEquals(5, result.getErrors().size());
+	}
+}
@@ -1,16 +1,27 @@
 package com.corebankingsystem.AccountMs;
 
+import com.corebankingsystem.AccountMs.DTO.AccountPageDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
 import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
 import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.impl.AccountCache;
+import com.corebankingsystem.AccountMs.service.impl.AccountNumberAllocator;
 import com.corebankingsystem.AccountMs.service.impl.AccountServiceImpl;
+import com.corebankingsystem.AccountMs.service.impl.MovementJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
@@ -26,6 +37,24 @@ class AccountMsApplicationTests {
 	@Mock
 	private AccountRepository accountRepository; // Mock del repositorio
 
+	@Mock
+	private AccountNumberAllocator accountNumberAllocator;
+
+	@Mock
+	private AccountCache accountCache;
+
+	@Mock
+	private MovementJournal movementJournal;
+
+	@Mock
+	private OutboxWriter outboxWriter;
+
+	@Spy
+	private ShardRouter shardRouter = new ShardRouter(new String[0]); // Un solo shard
+
+	@Spy
+	private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
 	@InjectMocks
 	private AccountServiceImpl accountServiceImpl; // Servicio a probar
 
@@ -35,9 +64,9 @@ class AccountMsApplicationTests {
 	public void setUp() {
 		MockitoAnnotations.openMocks(this);
 		accountsArray = new Account[] {
-				new Account(1L, "123456", 1000.0, Account.TypeAccount.ahorros, 1L),
-				new Account(2L, "654321", 1500.0, Account.TypeAccount.corriente, 2L),
-				new Account(3L, "789012", 2000.0, Account.TypeAccount.ahorros, 3L)
+				new Account(1L, "123456", 100000L, Account.TypeAccount.ahorros, 1L),
+				new Account(2L, "654321", 150000L, Account.TypeAccount.corriente, 2L),
+				new Account(3L, "789012", 200000L, Account.TypeAccount.ahorros, 3L)
 		};
 		when(accountRepository.findById(1L)).thenReturn(java.util.Optional.of(accountsArray[0]));
 		when(accountRepository.findById(2L)).thenReturn(java.util.Optional.of(accountsArray[1]));
@@ -47,11 +76,12 @@ class AccountMsApplicationTests {
 //Test para Create Account
 	@Test
 	public void testCreateAccount() {
-		when(accountRepository.existsByAccountNumber(anyString())).thenReturn(false);
+		when(accountNumberAllocator.next()).thenReturn("10000000009");
 		when(accountRepository.save(any(Account.class))).thenReturn(accountsArray[0]);
-		Account result = accountServiceImpl.createAccount(1000.0, Account.TypeAccount.corriente, 1L);
+		Account result = accountServiceImpl.createAccount(100000L, Account.TypeAccount.corriente, 1L);
 		assertNotNull(result);
-		assertEquals(1000.0, result.getBalance());
+		assertEquals(100000L, result.getBalance());
+		verify(accountRepository, times(0)).existsByAccountNumber(anyString());
 	}
 
 //Test for get all accounts
@@ -64,6 +94,24 @@ class AccountMsApplicationTests {
 		assertEquals("123456", result.get(0).getAccountNumber());
 	}
 
+//Test for keyset pagination
+	@Test
+	public void testGetAccountsPage_HasNextPage() {
+		when(accountRepository.findPageAfter(eq(0L), isNull(), isNull(), any(Pageable.class))).thenReturn(Arrays.asList(accountsArray));
+		AccountPageDTO page = accountServiceImpl.getAccountsPage(null, 2, null, null);
+		assertEquals(2, page.getContent().size());
+		assertEquals(2L, page.getNextCursor());
+	}
+
+	@Test
+	public void testGetAccountsPage_LastPage() {
+		when(accountRepository.findPageAfter(eq(2L), eq(Account.TypeAccount.ahorros), isNull(), any(Pageable.class)))
+				.thenReturn(Arrays.asList(accountsArray[2]));
+		AccountPageDTO page = accountServiceImpl.getAccountsPage(2L, 2, Account.TypeAccount.ahorros, null);
+		assertEquals(1, page.getContent().size());
+		assertNull(page.getNextCursor());
+	}
+
 //Test for get account by id
 	@Test
 	public void testGetAccountId() {
@@ -76,30 +124,36 @@ class AccountMsApplicationTests {
 // Test para deposit
 	@Test
 	public void testDeposit_Success() {
-		when(accountRepository.findById(1L)).thenReturn(java.util.Optional.of(accountsArray[0]));
-		ResponseEntity<Object> response = accountServiceImpl.deposit(1L, 500.0);
+		when(accountRepository.depositBalance(1L, 50000L)).thenAnswer(invocation -> {
+			accountsArray[0].deposit(50000L);
+			return 1;
+		});
+		ResponseEntity<Object> response = accountServiceImpl.deposit(1L, 50000L);
 		assertEquals(200, response.getStatusCodeValue());
 		Account updatedAccount = (Account) response.getBody();
 		assertNotNull(updatedAccount);
-		assertEquals(1500.0, updatedAccount.getBalance());
-		verify(accountRepository, times(1)).save(accountsArray[0]);
+		assertEquals(150000L, updatedAccount.getBalance());
+		verify(accountRepository, times(1)).depositBalance(1L, 50000L);
+		verify(accountCache, times(1)).evict(1L);
+		verify(movementJournal, times(1)).record(accountsArray[0], AccountMovement.MovementType.DEPOSIT, 50000L);
+		verify(accountRepository, times(0)).save(any(Account.class));
 	}
 
 	@Test
 	public void testDeposit_NegativeAmount() {
 		when(accountRepository.findById(1L)).thenReturn(java.util.Optional.of(accountsArray[0]));
-		ResponseEntity<Object> response = accountServiceImpl.deposit(1L, -500.0);
+		ResponseEntity<Object> response = accountServiceImpl.deposit(1L, -50000L);
 		assertEquals(400, response.getStatusCodeValue());
 		String message = (String) response.getBody();
 		assertEquals("Invalid deposit amount. Amount must be positive.", message);
-		verify(accountRepository, times(0)).save(any(Account.class));
+		verify(accountRepository, times(0)).depositBalance(anyLong(), anyLong());
 	}
 
 	@Test
 	public void testDeposit_AccountNotFound() {
 		when(accountRepository.findById(99L)).thenReturn(java.util.Optional.empty());
 		Exception exception = assertThrows(RuntimeException.class, () -> {
-			accountServiceImpl.deposit(99L, 500.0);
+			accountServiceImpl.deposit(99L, 50000L);
 		});
 		assertEquals("The account ID does not exist or is invalid.", exception.getMessage());
 		verify(accountRepository, times(0)).save(any(Account.class));
@@ -107,26 +161,32 @@ class AccountMsApplicationTests {
 // Test para withdraw
 	@Test
 	public void testWithdraw_SuccessfulWithdrawal_AhorrosAccount() {
-		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, 500.0);
+		when(accountRepository.withdrawIfAllowed(1L, 50000L)).thenAnswer(invocation -> {
+			accountsArray[0].withdraw(50000L);
+			return 1;
+		});
+		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, 50000L);
 		assertEquals(200, response.getStatusCodeValue());
 		Account updatedAccount = (Account) response.getBody();
 		assertNotNull(updatedAccount);
-		assertEquals(500.0, updatedAccount.getBalance(), 0.0);
-		verify(accountRepository, times(1)).save(updatedAccount);
+		assertEquals(50000L, updatedAccount.getBalance());
+		verify(accountRepository, times(1)).withdrawIfAllowed(1L, 50000L);
+		verify(movementJournal, times(1)).record(accountsArray[0], AccountMovement.MovementType.WITHDRAWAL, -50000L);
 	}
 
 	@Test
 	public void testWithdraw_InsufficientBalance_AhorrosAccount() {
-		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, 2000.0);
+		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, 200000L);
 		assertEquals(422, response.getStatusCodeValue());
 		String message = (String) response.getBody();
 		assertEquals("Withdrawals that result in a negative balance are not allowed for savings accounts.", message);
 		verify(accountRepository, times(0)).save(any(Account.class));
+		verify(movementJournal, times(0)).record(any(Account.class), any(), anyLong());
 	}
 
 	@Test
 	public void testWithdraw_InsufficientBalance_CorrienteAccount() {
-		ResponseEntity<Object> response = accountServiceImpl.withdraw(2L, 2600.0);
+		ResponseEntity<Object> response = accountServiceImpl.withdraw(2L, 260000L);
 		assertEquals(422, response.getStatusCodeValue());
 		String message = (String) response.getBody();
 		assertEquals("Withdrawals exceeding minus 500 below the balance are not allowed for checking account (overdrafts are permitted).", message);
@@ -135,18 +195,18 @@ class AccountMsApplicationTests {
 
 	@Test
 	public void testWithdraw_NegativeAmount() {
-		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, -500.0);
+		ResponseEntity<Object> response = accountServiceImpl.withdraw(1L, -50000L);
 		assertEquals(400, response.getStatusCodeValue());
 		String message = (String) response.getBody();
 		assertEquals("Invalid withdraw amount. Amount must be positive.", message);
-		verify(accountRepository, times(0)).save(any(Account.class));
+		verify(accountRepository, times(0)).withdrawIfAllowed(anyLong(), anyLong());
 	}
 
 	@Test
 	public void testWithdraw_AccountNotFound() {
 		when(accountRepository.findById(99L)).thenReturn(java.util.Optional.empty());
 		Exception exception = assertThrows(RuntimeException.class, () -> {
-			accountServiceImpl.withdraw(99L, 500.0);
+			accountServiceImpl.withdraw(99L, 50000L);
 		});
 		assertEquals("The account ID does not exist or is invalid.", exception.getMessage());
 		verify(accountRepository, times(0)).save(any(Account.class));
@@ -160,6 +220,7 @@ class AccountMsApplicationTests {
 		assertEquals(200, response.getStatusCodeValue());
 		assertEquals("Account successfully deleted", response.getBody());
 		verify(accountRepository, times(1)).deleteById(1L);
+		verify(accountCache, times(1)).evict(accountsArray[0]);
 	}
 
 	@Test
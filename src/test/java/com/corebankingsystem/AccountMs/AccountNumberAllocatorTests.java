@@ -0,0 +1,97 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.datasource.ShardContext;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.repository.AccountNumberBlockRepository;
+import com.corebankingsystem.AccountMs.service.impl.AccountNumberAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountNumberAllocatorTests {
+
+	// Simula la tabla account_number_block: cada reserva avanza el contador en un bloque
+	private AccountNumberBlockRepository blockRepository(long blockSize) {
+		AtomicLong counter = new AtomicLong(1000000000L);
+		AccountNumberBlockRepository repository = mock(AccountNumberBlockRepository.class);
+		when(repository.reserve(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> counter.getAndAdd(blockSize));
+		return repository;
+	}
+
+	@Test
+	public void testNext_ReservesOneBlockPerBlockSize() {
+		AccountNumberBlockRepository repository = blockRepository(10);
+		AccountNumberAllocator allocator = new AccountNumberAllocator(repository, 10, 1000000000L, true, new ShardRouter(new String[0]));
+		assertEquals("10000000009", allocator.next());
+		for (int i = 0; i < 24; i++) {
+			assertTrue(AccountNumberAllocator.hasValidCheckDigit(allocator.next()));
+		}
+		verify(repository, times(3)).reserve(anyString(), eq(10L), eq(1000000000L));
+	}
+
+	@Test
+	public void testNext_WithoutCheckDigit() {
+		AccountNumberAllocator allocator = new AccountNumberAllocator(blockRepository(10), 10, 1000000000L, false, new ShardRouter(new String[0]));
+		assertEquals("1000000000", allocator.next());
+		assertEquals("1000000001", allocator.next());
+	}
+
+	@Test
+	public void testNext_ConcurrentCallersNeverCollide() throws Exception {
+		AccountNumberAllocator allocator = new AccountNumberAllocator(blockRepository(50), 50, 1000000000L, true, new ShardRouter(new String[0]));
+		Set<String> numbers = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 1000; i++) {
+						numbers.add(allocator.next());
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(8000, numbers.size());
+	}
+
+	@Test
+	public void testNext_ShardedNumbersCarryTheShardAndUseOneBlockPerShard() {
+		AccountNumberBlockRepository repository = blockRepository(10);
+		ShardRouter shardRouter = new ShardRouter(new String[] {"jdbc:shard1", "jdbc:shard2"});
+		AccountNumberAllocator allocator = new AccountNumberAllocator(repository, 10, 1000000000L, true, shardRouter);
+		try {
+			String first = ShardContext.on(2, allocator::next);
+			String second = ShardContext.on(1, allocator::next);
+			assertTrue(first.startsWith("02"));
+			assertTrue(second.startsWith("01"));
+			assertTrue(AccountNumberAllocator.hasValidCheckDigit(first));
+			assertEquals(2, shardRouter.shardOfAccountNumber(first));
+			assertEquals(1, shardRouter.shardOfAccountNumber(second));
+			verify(repository, times(2)).reserve(anyString(), eq(10L), eq(1000000000L));
+		} finally {
+			shardRouter.shutdown();
+		}
+	}
+
+	@Test
+	public void testHasValidCheckDigit_DetectsTypos() {
+		assertTrue(AccountNumberAllocator.hasValidCheckDigit("10000000009"));
+		assertFalse(AccountNumberAllocator.hasValidCheckDigit("10000000008"));
+		assertFalse(AccountNumberAllocator.hasValidCheckDigit("10000010009"));
+	}
+}
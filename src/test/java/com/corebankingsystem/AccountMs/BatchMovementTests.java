@@ -0,0 +1,74 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.BatchMovementDTO;
+import com.corebankingsystem.AccountMs.DTO.BatchMovementResultDTO;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement.MovementType;
+import com.corebankingsystem.AccountMs.repository.AccountMovementRepository;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pruebas del lote de movimientos sobre la base H2 en memoria
+@SpringBootTest
+class BatchMovementTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountMovementRepository accountMovementRepository;
+
+	@Test
+	public void testApplyBatch_MixedResultsInRequestOrder() {
+		Account savings = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 11L);
+		Account checking = accountService.createAccount(0L, Account.TypeAccount.corriente, 12L);
+		long movementsBefore = accountMovementRepository.count();
+
+		List<BatchMovementResultDTO> results = accountService.applyBatch(Arrays.asList(
+				new BatchMovementDTO(savings.getAccountNumber(), MovementType.WITHDRAWAL, 8000L),
+				new BatchMovementDTO(savings.getAccountNumber(), MovementType.WITHDRAWAL, 5000L),
+				new BatchMovementDTO(savings.getAccountNumber(), MovementType.DEPOSIT, 3000L),
+				new BatchMovementDTO(checking.getAccountNumber(), MovementType.WITHDRAWAL, 50000L),
+				new BatchMovementDTO(checking.getAccountNumber(), MovementType.WITHDRAWAL, 1L),
+				new BatchMovementDTO("0000000000", MovementType.DEPOSIT, 100L),
+				new BatchMovementDTO(checking.getAccountNumber(), MovementType.DEPOSIT, 0L)));
+
+		assertEquals(7, results.size());
+		assertEquals(200, results.get(0).getStatus());
+		assertEquals(2000L, results.get(0).getBalance());
+		assertEquals(422, results.get(1).getStatus());
+		assertEquals(200, results.get(2).getStatus());
+		assertEquals(5000L, results.get(2).getBalance());
+		assertEquals(200, results.get(3).getStatus());
+		assertEquals(-50000L, results.get(3).getBalance());
+		assertEquals(422, results.get(4).getStatus());
+		assertEquals(404, results.get(5).getStatus());
+		assertEquals(400, results.get(6).getStatus());
+
+		assertEquals(5000L, accountRepository.findById(savings.getId()).get().getBalance());
+		assertEquals(-50000L, accountRepository.findById(checking.getId()).get().getBalance());
+		assertEquals(movementsBefore + 3, accountMovementRepository.count());
+	}
+
+	@Test
+	public void testApplyBatch_InvalidatesCachedAccount() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.ahorros, 13L);
+		assertEquals(0L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+
+		accountService.applyBatch(Arrays.asList(
+				new BatchMovementDTO(account.getAccountNumber(), MovementType.DEPOSIT, 2500L)));
+
+		assertEquals(2500L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+	}
+}
@@ -0,0 +1,110 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.AccountBalanceDTO;
+import com.corebankingsystem.AccountMs.DTO.DepositRequestDTO;
+import com.corebankingsystem.AccountMs.DTO.ErrorResponseDTO;
+import com.corebankingsystem.AccountMs.DTO.WithdrawalRequestDTO;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Negociacion de contenido de los endpoints de TransactionMS: JSON por defecto y CBOR con Accept: application/cbor
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTests {
+
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+	private final CBORMapper cborMapper = new CBORMapper();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	public void testByAccountNumber_JsonByDefault() throws Exception {
+		Account account = accountService.createAccount(100050L, Account.TypeAccount.ahorros, 901L);
+		mockMvc.perform(get("/accounts/byAccountNumber/" + account.getAccountNumber()))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.balance").value(1000.50))
+				.andExpect(jsonPath("$.customerId").doesNotExist())
+				.andExpect(jsonPath("$.version").doesNotExist());
+	}
+
+	@Test
+	public void testByAccountNumber_CborWhenAccepted() throws Exception {
+		Account account = accountService.createAccount(100050L, Account.TypeAccount.corriente, 902L);
+		MvcResult result = mockMvc.perform(get("/accounts/byAccountNumber/" + account.getAccountNumber()).accept(CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(CBOR))
+				.andReturn();
+		AccountBalanceDTO body = cborMapper.readValue(result.getResponse().getContentAsByteArray(), AccountBalanceDTO.class);
+		assertEquals(account.getId(), body.getId());
+		assertEquals(100050L, body.getBalance());
+		assertEquals(Account.TypeAccount.corriente, body.getTypeAccount());
+	}
+
+	@Test
+	public void testDeposit_CborRequestAndResponseWithoutNestedEntity() throws Exception {
+		Account account = accountService.createAccount(1000L, Account.TypeAccount.ahorros, 903L);
+		byte[] request = cborMapper.writeValueAsBytes(new DepositRequestDTO(account.getAccountNumber(), 250L));
+		MvcResult result = mockMvc.perform(post("/accounts/tDeposit").contentType(CBOR).accept(CBOR).content(request))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(CBOR))
+				.andReturn();
+		AccountBalanceDTO body = cborMapper.readValue(result.getResponse().getContentAsByteArray(), AccountBalanceDTO.class);
+		assertEquals(1250L, body.getBalance());
+
+		mockMvc.perform(post("/accounts/tDeposit").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":1.00}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.balance").value(13.50))
+				.andExpect(jsonPath("$.statusCodeValue").doesNotExist());
+	}
+
+	// Los errores tambien llegan en CBOR: un cliente que solo entiende CBOR puede leer el mensaje
+	@Test
+	public void testWithdrawal_CborErrorBody() throws Exception {
+		Account account = accountService.createAccount(1000L, Account.TypeAccount.ahorros, 904L);
+		byte[] request = cborMapper.writeValueAsBytes(new WithdrawalRequestDTO(account.getAccountNumber(), 5000L));
+		MvcResult result = mockMvc.perform(post("/accounts/tWithdrawal").contentType(CBOR).accept(CBOR).content(request))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(content().contentTypeCompatibleWith(CBOR))
+				.andReturn();
+		ErrorResponseDTO body = cborMapper.readValue(result.getResponse().getContentAsByteArray(), ErrorResponseDTO.class);
+		assertNotNull(body.getMessage());
+
+		mockMvc.perform(post("/accounts/tWithdrawal").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":50.00}"))
+				.andExpect(status().isUnprocessableEntity())
+				.andExpect(jsonPath("$.message").value(body.getMessage()));
+	}
+
+	// 10.005 no se redondea a 10.00 ni a 10.01: se rechaza y el saldo no cambia
+	@Test
+	public void testDeposit_SubCentAmountIsRejected() throws Exception {
+		Account account = accountService.createAccount(1000L, Account.TypeAccount.ahorros, 905L);
+		mockMvc.perform(post("/accounts/tDeposit").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":10.005}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(put("/accounts/" + account.getId() + "/deposit").param("amount", "10.005"))
+				.andExpect(status().isBadRequest());
+		assertEquals(1000L, accountService.getAccountId(account.getId()).get().getBalance());
+	}
+}
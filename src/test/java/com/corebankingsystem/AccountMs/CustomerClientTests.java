@@ -0,0 +1,142 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.client.CircuitBreaker;
+import com.corebankingsystem.AccountMs.client.CustomerClient;
+import com.corebankingsystem.AccountMs.client.CustomerServiceUnavailableException;
+import com.corebankingsystem.AccountMs.config.CustomerClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pruebas del cliente de CustomerMS contra un servidor HTTP local que simula el servicio
+class CustomerClientTests {
+
+	private HttpServer stub;
+	private final AtomicInteger hits = new AtomicInteger();
+	private CustomerClient customerClient;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		stub.createContext("/customers/", exchange -> {
+			hits.incrementAndGet();
+			String id = exchange.getRequestURI().getPath().substring("/customers/".length());
+			int status = 200;
+			if (id.equals("404")) {
+				status = 404;
+			} else if (id.equals("400")) {
+				status = 400;
+			} else if (id.equals("500")) {
+				status = 500;
+			}
+			byte[] body = ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		stub.start();
+		String baseUrl = "http://localhost:" + stub.getAddress().getPort();
+		customerClient = new CustomerClient(baseUrl,
+				CustomerClientConfig.pooledRestTemplate(500, 1000, 4),
+				new CircuitBreaker(3, 60000),
+				Duration.ofMinutes(5),
+				Duration.ofMinutes(1),
+				100);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		stub.stop(0);
+	}
+
+	@Test
+	public void testCustomerExists_IsCached() {
+		assertTrue(customerClient.customerExists(1L));
+		assertTrue(customerClient.customerExists(1L));
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	public void testCustomerNotFound_IsCached() {
+		assertFalse(customerClient.customerExists(404L));
+		assertFalse(customerClient.customerExists(404L));
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	public void testOtherClientErrors_AreNotCachedAsMissing() {
+		assertThrows(CustomerServiceUnavailableException.class, () -> customerClient.customerExists(400L));
+		assertThrows(CustomerServiceUnavailableException.class, () -> customerClient.customerExists(400L));
+		assertEquals(2, hits.get());
+	}
+
+	@Test
+	public void testServerErrors_OpenCircuitAndFailFast() {
+		for (int i = 0; i < 3; i++) {
+			assertThrows(CustomerServiceUnavailableException.class, () -> customerClient.customerExists(500L));
+		}
+		assertEquals(CircuitBreaker.State.OPEN, customerClient.getCircuitBreaker().getState());
+		assertThrows(CustomerServiceUnavailableException.class, () -> customerClient.customerExists(1L));
+		assertEquals(3, hits.get());
+	}
+
+	@Test
+	public void testOutboundCall_IsTimedByOutcome() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		customerClient.bindTo(registry);
+		customerClient.customerExists(1L);
+		customerClient.customerExists(404L);
+		customerClient.customerExists(1L);
+		assertEquals(1, registry.get("customer.service.requests").tag("outcome", "exists").timer().count());
+		assertEquals(1, registry.get("customer.service.requests").tag("outcome", "not_found").timer().count());
+		assertEquals(0.0, registry.get("customer.service.circuit.state").gauge().value());
+	}
+
+	@Test
+	public void testCircuitBreaker_HalfOpenTrialClosesCircuit() {
+		AtomicInteger now = new AtomicInteger();
+		CircuitBreaker breaker = new CircuitBreaker(2, 100, now::get);
+		breaker.recordFailure();
+		breaker.recordFailure();
+		assertFalse(breaker.allowRequest());
+		now.set(150);
+		assertTrue(breaker.allowRequest());
+		assertFalse(breaker.allowRequest());
+		breaker.recordSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.allowRequest());
+	}
+
+	// Una llamada de prueba que falla con algo que no es RestClientException no deja el circuito bloqueado
+	@Test
+	public void testCircuitBreaker_UnexpectedTrialFailureFreesTheTrial() {
+		AtomicInteger now = new AtomicInteger();
+		CircuitBreaker breaker = new CircuitBreaker(1, 100, now::get);
+		RestTemplate failing = new RestTemplate() {
+			@Override
+			public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+				throw new IllegalStateException("broken converter");
+			}
+		};
+		CustomerClient client = new CustomerClient("http://localhost", failing, breaker,
+				Duration.ofMinutes(5), Duration.ofMinutes(1), 100);
+		assertThrows(IllegalStateException.class, () -> client.customerExists(1L));
+		now.set(150);
+		assertThrows(IllegalStateException.class, () -> client.customerExists(1L));
+		now.set(300);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.allowRequest());
+	}
+}
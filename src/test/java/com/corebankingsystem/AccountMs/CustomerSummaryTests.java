@@ -0,0 +1,59 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.AccountTypeSummaryDTO;
+import com.corebankingsystem.AccountMs.DTO.CustomerSummaryDTO;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Resumen de cartera por cliente sobre la base H2 en memoria
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CustomerSummaryTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testCustomerSummary_TotalsByTypeWithoutLoadingEntities() {
+		accountService.createAccount(10050L, Account.TypeAccount.ahorros, 501L);
+		accountService.createAccount(20000L, Account.TypeAccount.ahorros, 501L);
+		accountService.createAccount(-3000L, Account.TypeAccount.corriente, 501L);
+		accountService.createAccount(99999L, Account.TypeAccount.ahorros, 502L);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		CustomerSummaryDTO summary = accountService.getCustomerSummary(501L);
+
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(3, summary.getAccounts());
+		assertEquals(27050L, summary.getBalance());
+		assertEquals(2, summary.getByType().size());
+		AccountTypeSummaryDTO savings = summary.getByType().get(0);
+		assertEquals(Account.TypeAccount.ahorros, savings.getTypeAccount());
+		assertEquals(2, savings.getAccounts());
+		assertEquals(30050L, savings.getBalance());
+		AccountTypeSummaryDTO checking = summary.getByType().get(1);
+		assertEquals(Account.TypeAccount.corriente, checking.getTypeAccount());
+		assertEquals(1, checking.getAccounts());
+		assertEquals(-3000L, checking.getBalance());
+	}
+
+	@Test
+	public void testCustomerSummary_CustomerWithoutAccounts() {
+		CustomerSummaryDTO summary = accountService.getCustomerSummary(503L);
+		assertEquals(0, summary.getAccounts());
+		assertEquals(0L, summary.getBalance());
+		assertTrue(summary.getByType().isEmpty());
+	}
+}
@@ -0,0 +1,266 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.EndOfDayStatusDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.endofday.EndOfDayJob;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.outbox.OutboxWriter;
+import com.corebankingsystem.AccountMs.repository.AccountBatchRepository;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.repository.EndOfDayRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.corebankingsystem.AccountMs.service.impl.AccountCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Cierre diario sobre H2: tasa 3.65 % anual en base 365, es decir interes diario = saldo / 10000.
+// Bloques de 2 cuentas y 3 trabajadores para que haya varios bloques en paralelo. Cada prueba usa su propia fecha
+// porque los puntos de control de una fecha tambien cubren las cuentas creadas por otras pruebas.
+@SpringBootTest(properties = {
+		"accounts.eod.savings-annual-rate-percent=3.65",
+		"accounts.eod.days-in-year=365",
+		"accounts.eod.overdraft-fee=5.00",
+		"accounts.eod.chunk-size=2",
+		"accounts.eod.workers=3"
+})
+@AutoConfigureMockMvc
+class EndOfDayJobTests {
+
+	@Autowired
+	private EndOfDayJob endOfDayJob;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private EndOfDayRepository endOfDayRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AccountBatchRepository accountBatchRepository;
+
+	@Autowired
+	private AccountCache accountCache;
+
+	@Autowired
+	private OutboxWriter outboxWriter;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void testRun_CreditsInterestAndChargesOverdraftFees() {
+		Account savings = accountService.createAccount(1000000L, Account.TypeAccount.ahorros, 41L);
+		Account emptySavings = accountService.createAccount(0L, Account.TypeAccount.ahorros, 41L);
+		Account tinySavings = accountService.createAccount(4999L, Account.TypeAccount.ahorros, 41L);
+		Account overdrawn = overdrawnChecking(20000L, 42L);
+		Account nearFloor = overdrawnChecking(49800L, 42L);
+		Account positiveChecking = accountService.createAccount(30000L, Account.TypeAccount.corriente, 42L);
+
+		EndOfDayStatusDTO status = endOfDayJob.run(LocalDate.of(2030, 1, 1));
+
+		assertEquals(EndOfDayStatusDTO.State.COMPLETED, status.getState());
+		assertEquals(0, status.getFailedChunks());
+		assertTrue(status.getChunks() > 1);
+		assertEquals(1000100L, balanceOf(savings));
+		assertEquals(0L, balanceOf(emptySavings));
+		// 4999 / 10000 = 0.4999 centimos, redondea a 0: sin movimiento
+		assertEquals(4999L, balanceOf(tinySavings));
+		assertEquals(-20500L, balanceOf(overdrawn));
+		// La comision se recorta para no pasar del piso de -500.00
+		assertEquals(-50000L, balanceOf(nearFloor));
+		assertEquals(30000L, balanceOf(positiveChecking));
+
+		assertEquals(List.of(100L), endOfDayAmounts(savings, "INTEREST"));
+		assertEquals(List.of(-500L), endOfDayAmounts(overdrawn, "FEE"));
+		assertEquals(List.of(-200L), endOfDayAmounts(nearFloor, "FEE"));
+		assertTrue(endOfDayAmounts(tinySavings, "INTEREST").isEmpty());
+		assertTrue(endOfDayAmounts(positiveChecking, "FEE").isEmpty());
+	}
+
+	@Test
+	public void testRun_SameDateTwiceAppliesOnce() {
+		Account savings = accountService.createAccount(500000L, Account.TypeAccount.ahorros, 43L);
+		LocalDate businessDate = LocalDate.of(2030, 2, 1);
+
+		EndOfDayStatusDTO first = endOfDayJob.run(businessDate);
+		assertTrue(first.getChunks() > 0);
+		assertEquals(500050L, balanceOf(savings));
+
+		EndOfDayStatusDTO second = endOfDayJob.run(businessDate);
+		assertEquals(EndOfDayStatusDTO.State.COMPLETED, second.getState());
+		assertEquals(0, second.getChunks());
+		assertTrue(second.getSkippedChunks() > 0);
+		assertEquals(500050L, balanceOf(savings));
+
+		// El dia siguiente vuelve a abonar, sobre el saldo ya capitalizado
+		endOfDayJob.run(businessDate.plusDays(1));
+		assertEquals(500100L, balanceOf(savings));
+	}
+
+	@Test
+	public void testRun_ResumesAfterTheLastCheckpoint() {
+		Account processed = accountService.createAccount(200000L, Account.TypeAccount.ahorros, 44L);
+		Account pending = accountService.createAccount(200000L, Account.TypeAccount.ahorros, 44L);
+		LocalDate businessDate = LocalDate.of(2030, 3, 1);
+		// Punto de control de una ejecucion anterior que se cayo despues de confirmar el primer bloque
+		endOfDayRepository.insertChunk(businessDate, 0L, processed.getId(), 1, 20L, 0L, Instant.now());
+
+		EndOfDayStatusDTO status = endOfDayJob.run(businessDate);
+
+		assertEquals(EndOfDayStatusDTO.State.COMPLETED, status.getState());
+		assertEquals(200000L, balanceOf(processed));
+		assertEquals(200020L, balanceOf(pending));
+		assertTrue(endOfDayAmounts(processed, "INTEREST").isEmpty());
+	}
+
+	@Test
+	public void testStart_RunsInTheBackground() throws InterruptedException {
+		accountService.createAccount(100000L, Account.TypeAccount.ahorros, 45L);
+		LocalDate businessDate = LocalDate.of(2030, 4, 1);
+
+		assertTrue(endOfDayJob.start(businessDate));
+		long deadline = System.currentTimeMillis() + 10000L;
+		while (endOfDayJob.isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20L);
+		}
+		EndOfDayStatusDTO status = endOfDayJob.getStatus();
+		assertEquals(EndOfDayStatusDTO.State.COMPLETED, status.getState());
+		assertEquals(businessDate, status.getBusinessDate());
+		assertNotNull(status.getFinishedAt());
+	}
+
+	// Dos nodos lanzan el cierre de la misma fecha a la vez: cada cuenta recibe el interes una sola vez
+	@Test
+	public void testRun_ConcurrentRunsOnTwoNodesApplyOnce() throws Exception {
+		List<Account> accounts = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			accounts.add(accountService.createAccount(100000L, Account.TypeAccount.ahorros, 46L));
+		}
+		LocalDate businessDate = LocalDate.of(2030, 5, 1);
+		EndOfDayJob otherNode = newJob();
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			CompletableFuture<EndOfDayStatusDTO> first = CompletableFuture.supplyAsync(() -> runAfter(start, endOfDayJob, businessDate));
+			CompletableFuture<EndOfDayStatusDTO> second = CompletableFuture.supplyAsync(() -> runAfter(start, otherNode, businessDate));
+			start.countDown();
+
+			assertEquals(EndOfDayStatusDTO.State.COMPLETED, first.get().getState());
+			assertEquals(EndOfDayStatusDTO.State.COMPLETED, second.get().getState());
+		} finally {
+			otherNode.shutdown();
+		}
+		for (Account account : accounts) {
+			assertEquals(100010L, balanceOf(account));
+			assertEquals(List.of(10L), endOfDayAmounts(account, "INTEREST"));
+		}
+	}
+
+	// Apagar con bloques todavia en cola no deja al coordinador esperando sus huecos para siempre
+	@Test
+	public void testShutdown_WithQueuedChunksEndsTheRun() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			accountService.createAccount(100000L, Account.TypeAccount.ahorros, 47L);
+		}
+		EndOfDayJob job = newJob(1, 1);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// Otra transaccion retiene las filas: el unico trabajador se queda esperando y los demas bloques se encolan
+		CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.queryForList("SELECT id FROM account WHERE customer_id = 47 FOR UPDATE", Long.class);
+			locked.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		try {
+			locked.await();
+			assertTrue(job.start(LocalDate.of(2030, 6, 1)));
+			Thread.sleep(500L);
+			job.shutdown();
+		} finally {
+			release.countDown();
+			holder.get();
+		}
+		long deadline = System.currentTimeMillis() + 15000L;
+		while (job.isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20L);
+		}
+		assertFalse(job.isRunning());
+		assertEquals(EndOfDayStatusDTO.State.FAILED, job.getStatus().getState());
+	}
+
+	@Test
+	public void testRunEndpoint_RejectsFutureDates() throws Exception {
+		mockMvc.perform(post("/accounts/eod/run").param("date", endOfDayJob.previousBusinessDate().plusDays(1).toString()))
+				.andExpect(status().isBadRequest());
+	}
+
+	private EndOfDayJob newJob() {
+		return newJob(2, 3);
+	}
+
+	private EndOfDayJob newJob(int chunkSize, int workers) {
+		return new EndOfDayJob(endOfDayRepository, accountBatchRepository, accountCache, outboxWriter, shardRouter,
+				transactionManager, meterRegistry, false, "UTC", new BigDecimal("3.65"), 365L, "5.00", chunkSize, workers);
+	}
+
+	private static EndOfDayStatusDTO runAfter(CountDownLatch start, EndOfDayJob job, LocalDate businessDate) {
+		try {
+			start.await();
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+		return job.run(businessDate);
+	}
+
+	private Account overdrawnChecking(long overdraft, long customerId) {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, customerId);
+		assertEquals(200, accountService.withdraw(account.getId(), overdraft).getStatusCode().value());
+		return account;
+	}
+
+	private long balanceOf(Account account) {
+		return accountRepository.findById(account.getId()).get().getBalance();
+	}
+
+	private List<Long> endOfDayAmounts(Account account, String type) {
+		return jdbcTemplate.queryForList("SELECT amount FROM account_movement WHERE account_id = ? AND type = ? ORDER BY id",
+				Long.class, account.getId(), type);
+	}
+}
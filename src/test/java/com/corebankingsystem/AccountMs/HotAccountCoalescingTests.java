@@ -0,0 +1,134 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.coalescing.HotAccountCoalescer;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountMovementRepository;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Agrupacion de escrituras sobre cuentas calientes: muchos tDeposit / tWithdrawal concurrentes sobre la misma
+// cuenta se aplican en pocas transacciones y cada llamante recibe su propio resultado
+@SpringBootTest(properties = {
+		"accounts.coalescing.enabled=true",
+		"accounts.coalescing.window-ms=200",
+		"accounts.coalescing.queue-capacity=64",
+		"accounts.coalescing.max-wait-ms=10000"
+})
+class HotAccountCoalescingTests {
+
+	@Autowired
+	private HotAccountCoalescer hotAccountCoalescer;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountMovementRepository movementRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	public void testConcurrentDeposits_AppliedInFewTransactions() throws Exception {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 801L);
+		long flushesBefore = meterRegistry.get("accounts.coalescing.batch.size").summary().count();
+
+		List<ResponseEntity<Object>> responses = runConcurrently(50, () -> hotAccountCoalescer.deposit(account.getId(), 100L));
+
+		assertEquals(50, count(responses, 200));
+		assertEquals(5000L, accountRepository.findById(account.getId()).get().getBalance());
+		assertEquals(51, movementRepository.findAll().stream().filter(m -> m.getAccountId() == account.getId()).count());
+		long flushes = meterRegistry.get("accounts.coalescing.batch.size").summary().count() - flushesBefore;
+		assertTrue(flushes < 50, "expected coalesced flushes but got " + flushes);
+	}
+
+	@Test
+	public void testWithdrawals_CheckedInArrivalOrderWithOwnResult() throws Exception {
+		Account account = accountService.createAccount(3000L, Account.TypeAccount.ahorros, 802L);
+
+		List<ResponseEntity<Object>> responses = runConcurrently(50, () -> hotAccountCoalescer.withdraw(account.getId(), 100L));
+
+		assertEquals(30, count(responses, 200));
+		assertEquals(20, count(responses, 422));
+		assertEquals(0L, accountRepository.findById(account.getId()).get().getBalance());
+		// Cada retiro aceptado ve el saldo que dejo su propio movimiento: 2900, 2800, ..., 0
+		Set<Long> balances = new HashSet<>();
+		for (ResponseEntity<Object> response : responses) {
+			if (response.getStatusCode().value() == 200) {
+				balances.add(((Account) response.getBody()).getBalance());
+			}
+		}
+		assertEquals(30, balances.size());
+		for (long balance = 0; balance < 3000L; balance += 100L) {
+			assertTrue(balances.contains(balance));
+		}
+	}
+
+	@Test
+	public void testFullQueue_RejectsWithBackpressure() throws Exception {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 803L);
+
+		List<ResponseEntity<Object>> responses = runConcurrently(150, () -> hotAccountCoalescer.deposit(account.getId(), 100L));
+
+		long accepted = count(responses, 200);
+		long rejected = count(responses, 429);
+		assertEquals(150, accepted + rejected);
+		assertTrue(rejected > 0, "expected some 429 responses");
+		assertEquals(accepted * 100L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testInvalidAmount_UsesDirectPath() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 804L);
+		assertTrue(hotAccountCoalescer.accepts(account.getAccountNumber(), 100L));
+		assertFalse(hotAccountCoalescer.accepts(account.getAccountNumber(), 0L));
+	}
+
+	// Todos los hilos arrancan a la vez para que los movimientos lleguen dentro de la misma ventana
+	private List<ResponseEntity<Object>> runConcurrently(int operations, Callable<ResponseEntity<Object>> operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(operations);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+			for (int i = 0; i < operations; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return operation.call();
+				}));
+			}
+			start.countDown();
+			List<ResponseEntity<Object>> responses = new ArrayList<>();
+			for (Future<ResponseEntity<Object>> future : futures) {
+				responses.add(future.get(30, TimeUnit.SECONDS));
+			}
+			return responses;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long count(List<ResponseEntity<Object>> responses, int status) {
+		return responses.stream().filter(r -> r.getStatusCode().value() == status).count();
+	}
+}
@@ -0,0 +1,88 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.corebankingsystem.AccountMs.service.IdempotencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Un reintento con la misma Idempotency-Key no mueve el saldo dos veces
+@SpringBootTest
+class IdempotencyTests {
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Test
+	public void testReplay_ReturnsStoredResponseWithoutSecondDeposit() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.ahorros, 1L);
+		AtomicInteger executions = new AtomicInteger();
+		ResponseEntity<Object> first = idempotencyService.execute("key-replay", "tDeposit:x:100", () -> {
+			executions.incrementAndGet();
+			return accountService.deposit(account.getId(), 100L);
+		});
+		ResponseEntity<Object> second = idempotencyService.execute("key-replay", "tDeposit:x:100", () -> {
+			executions.incrementAndGet();
+			return accountService.deposit(account.getId(), 100L);
+		});
+		assertEquals(1, executions.get());
+		assertEquals(200, second.getStatusCode().value());
+		assertEquals(((Account) first.getBody()).getBalance(), ((Account) second.getBody()).getBalance());
+		assertEquals(100L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testReusedKeyWithDifferentRequest_IsRejected() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.ahorros, 1L);
+		idempotencyService.execute("key-reuse", "tDeposit:x:100", () -> accountService.deposit(account.getId(), 100L));
+		ResponseEntity<Object> response = idempotencyService.execute("key-reuse", "tDeposit:x:999",
+				() -> accountService.deposit(account.getId(), 999L));
+		assertEquals(422, response.getStatusCode().value());
+		assertEquals(100L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testNotFound_DoesNotConsumeKey() {
+		ResponseEntity<Object> missing = idempotencyService.execute("key-404", "tDeposit:y:100", () -> ResponseEntity.status(404).build());
+		assertEquals(404, missing.getStatusCode().value());
+		ResponseEntity<Object> retried = idempotencyService.execute("key-404", "tDeposit:y:100", () -> ResponseEntity.status(200).body("ok"));
+		assertEquals(200, retried.getStatusCode().value());
+	}
+
+	@Test
+	public void testConcurrentRetries_ApplyOnce() throws Exception {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 2L);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> idempotencyService.execute("key-concurrent", "tDeposit:z:100",
+						() -> accountService.deposit(account.getId(), 100L))));
+			}
+			for (Future<ResponseEntity<Object>> future : futures) {
+				assertEquals(200, future.get().getStatusCode().value());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(100L, accountRepository.findById(account.getId()).get().getBalance());
+	}
+}
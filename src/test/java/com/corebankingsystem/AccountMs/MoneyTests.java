@@ -0,0 +1,63 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.DepositRequestDTO;
+import com.corebankingsystem.AccountMs.model.Money;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTests {
+
+	@Test
+	public void testParseMinor_DecimalFormats() {
+		assertEquals(12345L, Money.parseMinor("123.45"));
+		assertEquals(1050L, Money.parseMinor("10.5"));
+		assertEquals(-500L, Money.parseMinor("-5"));
+		assertEquals(1000L, Money.parseMinor("10.000"));
+		assertEquals(150000L, Money.parseMinor("1.5E3"));
+		assertThrows(NumberFormatException.class, () -> Money.parseMinor("-"));
+	}
+
+	// Las fracciones de centimo no se redondean en silencio
+	@Test
+	public void testParseMinor_RejectsSubCentAmounts() {
+		assertThrows(ArithmeticException.class, () -> Money.parseMinor("0.015"));
+		assertThrows(ArithmeticException.class, () -> Money.parseMinor("10.005"));
+		assertThrows(ArithmeticException.class, () -> Money.toMinor(new BigDecimal("10.005")));
+		assertTrue(Money.isExactMinor(new BigDecimal("10.500")));
+		assertFalse(Money.isExactMinor(new BigDecimal("10.005")));
+		ObjectMapper mapper = new ObjectMapper();
+		assertThrows(JsonMappingException.class,
+				() -> mapper.readValue("{\"accountNumber\":\"123456\",\"amount\":10.005}", DepositRequestDTO.class));
+	}
+
+	@Test
+	public void testFormat_AlwaysTwoDecimals() {
+		assertEquals("1000.50", Money.format(100050L));
+		assertEquals("-0.05", Money.format(-5L));
+		assertEquals("0.00", Money.format(0L));
+	}
+
+	@Test
+	public void testOverdraftFloors() {
+		assertTrue(Account.TypeAccount.ahorros.allowsWithdrawal(1000L, 1000L));
+		assertFalse(Account.TypeAccount.ahorros.allowsWithdrawal(1000L, 1001L));
+		assertTrue(Account.TypeAccount.corriente.allowsWithdrawal(0L, 50000L));
+		assertFalse(Account.TypeAccount.corriente.allowsWithdrawal(0L, 50001L));
+		assertEquals(new BigDecimal("-500.00"), Money.toDecimal(Account.TypeAccount.corriente.getOverdraftFloor()));
+	}
+
+	@Test
+	public void testJson_KeepsDecimalApi() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		DepositRequestDTO dto = mapper.readValue("{\"accountNumber\":\"123456\",\"amount\":250.75}", DepositRequestDTO.class);
+		assertEquals(25075L, dto.getAmount());
+		Account account = new Account(1L, "123456", 100050L, Account.TypeAccount.ahorros, 1L);
+		assertTrue(mapper.writeValueAsString(account).contains("\"balance\":1000.50"));
+	}
+}
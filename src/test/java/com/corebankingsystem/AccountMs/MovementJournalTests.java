@@ -0,0 +1,77 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.BatchMovementDTO;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.AccountMovement;
+import com.corebankingsystem.AccountMs.model.entity.BalanceSnapshot;
+import com.corebankingsystem.AccountMs.repository.BalanceSnapshotRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// El diario se escribe junto con cada cambio de saldo y permite reconstruir saldos historicos
+@SpringBootTest(properties = {"accounts.journal.snapshot-interval=2", "accounts.statement.page-size=2"})
+class MovementJournalTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private BalanceSnapshotRepository snapshotRepository;
+
+	@Test
+	public void testStatement_StreamsEveryMovementInOrder() {
+		Instant start = Instant.now().minusSeconds(1);
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 1L);
+		accountService.deposit(account.getId(), 5000L);
+		accountService.withdraw(account.getId(), 2000L);
+		accountService.withdraw(account.getId(), 99999L); // rechazado, no deja movimiento
+		accountService.deposit(account.getId(), 100L);
+		Instant end = Instant.now().plusSeconds(1);
+
+		List<AccountMovement> movements = new ArrayList<>();
+		accountService.streamStatement(account.getId(), start, end, movements::add);
+		assertEquals(4, movements.size());
+		assertEquals(AccountMovement.MovementType.OPENING, movements.get(0).getType());
+		assertEquals(-2000L, movements.get(2).getAmount());
+		assertEquals(0L, accountService.getBalanceBefore(account.getId(), start));
+		assertEquals(13100L, accountService.getBalanceBefore(account.getId(), end));
+	}
+
+	@Test
+	public void testSnapshots_WrittenPeriodically() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.corriente, 2L);
+		for (int i = 0; i < 4; i++) {
+			accountService.deposit(account.getId(), 100L);
+		}
+		long snapshots = snapshotRepository.findAll().stream().filter(s -> s.getAccountId() == account.getId()).count();
+		assertEquals(3, snapshots);
+		assertEquals(400L, accountService.getBalanceBefore(account.getId(), Instant.now().plusSeconds(1)));
+	}
+
+	// Los lotes escriben por JDBC sin pasar por record(): tambien dejan foto al cruzar el intervalo
+	@Test
+	public void testSnapshots_WrittenByBatchMovements() {
+		Account account = accountService.createAccount(0L, Account.TypeAccount.ahorros, 3L);
+		List<BatchMovementDTO> batch = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			batch.add(new BatchMovementDTO(account.getAccountNumber(), AccountMovement.MovementType.DEPOSIT, 100L));
+		}
+		accountService.applyBatch(batch);
+
+		List<BalanceSnapshot> snapshots = snapshotRepository.findAll().stream()
+				.filter(s -> s.getAccountId() == account.getId()).collect(Collectors.toList());
+		assertEquals(2, snapshots.size());
+		assertEquals(400L, snapshots.get(1).getBalance());
+		assertEquals(4L, accountService.getAccountId(account.getId()).get().getVersion());
+		assertEquals(400L, accountService.getBalanceBefore(account.getId(), Instant.now().plusSeconds(1)));
+	}
+}
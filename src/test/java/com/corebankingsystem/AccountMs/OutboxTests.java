@@ -0,0 +1,130 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.ChangesPageDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import com.corebankingsystem.AccountMs.outbox.ChangeFeed;
+import com.corebankingsystem.AccountMs.outbox.InMemoryOutboxSink;
+import com.corebankingsystem.AccountMs.outbox.OutboxRelay;
+import com.corebankingsystem.AccountMs.repository.OutboxRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Outbox, relay y feed de cambios sobre la base H2 en memoria; el relay se ejecuta a mano en cada prueba
+@SpringBootTest(properties = {"accounts.outbox.sink=memory", "accounts.outbox.relay-interval-ms=3600000"})
+class OutboxTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private InMemoryOutboxSink sink;
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	@Autowired
+	private OutboxRepository outboxRepository;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	public void setUp() {
+		outboxRelay.relay();
+		sink.clear();
+	}
+
+	@Test
+	public void testRelay_PublishesEveryChangeInOrder() {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 801L);
+		accountService.deposit(account.getId(), 500L);
+		accountService.withdraw(account.getId(), 20000L);
+		accountService.withdraw(account.getId(), 300L);
+		accountService.deleteAccount(account.getId());
+
+		assertEquals(4, outboxRelay.relay());
+		assertEquals(0, outboxRelay.relay());
+
+		List<OutboxEvent> events = sink.getPublished();
+		assertEquals(List.of(OutboxEvent.EventType.ACCOUNT_OPENED, OutboxEvent.EventType.BALANCE_CHANGED,
+				OutboxEvent.EventType.BALANCE_CHANGED, OutboxEvent.EventType.ACCOUNT_DELETED),
+				events.stream().map(OutboxEvent::getEventType).collect(Collectors.toList()));
+		assertEquals(Long.valueOf(10500L), events.get(1).getBalance());
+		assertEquals(Long.valueOf(10200L), events.get(2).getBalance());
+		assertNull(events.get(3).getBalance());
+		for (int i = 1; i < events.size(); i++) {
+			assertEquals(events.get(i - 1).getPosition() + 1, events.get(i).getPosition());
+		}
+	}
+
+	@Test
+	public void testChangeFeed_ReturnsPublishedEventsAfterCursor() {
+		String cursor = ((ChangesPageDTO) changeFeed.poll("0", 1000, 0L).getResult()).getNextCursor();
+		Account source = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 802L);
+		Account target = accountService.createAccount(0L, Account.TypeAccount.ahorros, 803L);
+		accountService.transfer(source.getId(), target.getId(), 2500L);
+
+		// Sin relay todavia no hay nada publicado
+		assertTrue(((ChangesPageDTO) changeFeed.poll(cursor, 10, 0L).getResult()).getEvents().isEmpty());
+		outboxRelay.relay();
+
+		ChangesPageDTO page = (ChangesPageDTO) changeFeed.poll(cursor, 3, 0L).getResult();
+		assertEquals(3, page.getEvents().size());
+		ChangesPageDTO rest = (ChangesPageDTO) changeFeed.poll(page.getNextCursor(), 10, 0L).getResult();
+		assertEquals(1, rest.getEvents().size());
+		assertEquals(Long.valueOf(2500L), rest.getEvents().get(0).getBalance());
+	}
+
+	@Test
+	public void testChangeFeed_LongPollCompletesWhenRelayPublishes() {
+		String cursor = ((ChangesPageDTO) changeFeed.poll("0", 1000, 0L).getResult()).getNextCursor();
+		DeferredResult<ChangesPageDTO> waiting = changeFeed.poll(cursor, 10, 10000L);
+		assertFalse(waiting.hasResult());
+
+		accountService.createAccount(100L, Account.TypeAccount.corriente, 804L);
+		outboxRelay.relay();
+
+		assertTrue(waiting.hasResult());
+		ChangesPageDTO page = (ChangesPageDTO) waiting.getResult();
+		assertEquals(OutboxEvent.EventType.ACCOUNT_OPENED, page.getEvents().get(0).getEventType());
+		assertEquals(String.valueOf(Long.parseLong(cursor) + 1), page.getNextCursor());
+	}
+
+	@Test
+	public void testChangeFeed_LongPollCompletesWhenAnotherNodePublishes() {
+		String cursor = ((ChangesPageDTO) changeFeed.poll("0", 1000, 0L).getResult()).getNextCursor();
+		DeferredResult<ChangesPageDTO> waiting = changeFeed.poll(cursor, 10, 10000L);
+		// Otro nodo con su propio feed publica el evento; este nodo tiene el relay desactivado
+		OutboxRelay otherNode = new OutboxRelay(outboxRepository, new InMemoryOutboxSink(),
+				new ChangeFeed(outboxRepository, shardRouter, 1000, 30000L), shardRouter, transactionManager, 500, true, 72L);
+		OutboxRelay thisNode = new OutboxRelay(outboxRepository, sink, changeFeed, shardRouter, transactionManager, 500, false, 72L);
+
+		accountService.createAccount(100L, Account.TypeAccount.corriente, 805L);
+		assertEquals(1, otherNode.relay());
+		assertFalse(waiting.hasResult());
+
+		assertEquals(0, thisNode.relay());
+		assertTrue(waiting.hasResult());
+		ChangesPageDTO page = (ChangesPageDTO) waiting.getResult();
+		assertEquals(OutboxEvent.EventType.ACCOUNT_OPENED, page.getEvents().get(0).getEventType());
+		assertTrue(sink.getPublished().isEmpty());
+	}
+}
@@ -0,0 +1,114 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.datasource.ReplicaPinningFilter;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Enrutado lectura/escritura con dos H2 en memoria: el primario de src/test/resources y un replica aparte.
+// La replicacion se simula copiando el primario completo al replica (SCRIPT) en el momento que elige cada prueba.
+@SpringBootTest(properties = {
+		"accounts.datasource.replica.url=jdbc:h2:mem:accountms-replica-${random.uuid};DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"accounts.datasource.replica.pin-after-write-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Test
+	public void testReadOnlyQueries_AreServedByReplica() {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 701L);
+		replicate();
+		setReplicaBalance(account.getId(), 7777L);
+
+		assertEquals(7777L, accountService.getAccountId(account.getId()).get().getBalance());
+		assertEquals(7777L, accountService.getCustomerId(701L).get().get(0).getBalance());
+		assertTrue(accountService.getAccounts().stream().anyMatch(a -> a.getBalance() == 7777L));
+		assertEquals(7777L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+		assertEquals(10000L, primaryBalance(account.getId()));
+	}
+
+	@Test
+	public void testReplicaSnapshots_AreNotCached() {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 702L);
+		replicate();
+		assertEquals(10000L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+		setReplicaBalance(account.getId(), 5000L);
+		assertEquals(5000L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+	}
+
+	@Test
+	public void testWrites_GoToPrimary() {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 703L);
+		replicate();
+		assertEquals(200, accountService.deposit(account.getId(), 2500L).getStatusCode().value());
+		assertEquals(12500L, primaryBalance(account.getId()));
+		assertEquals(10000L, new JdbcTemplate(replicaDataSource).queryForObject(
+				"SELECT balance_minor FROM account WHERE id = ?", Long.class, account.getId()));
+	}
+
+	@Test
+	public void testClientThatWrote_ReadsFromPrimary() throws Exception {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 704L);
+		replicate();
+
+		mockMvc.perform(post("/accounts/tDeposit").header(ReplicaPinningFilter.CLIENT_ID_HEADER, "teller-1")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":25.00}"))
+				.andExpect(status().isOk());
+
+		// Quien escribio ve su deposito aunque el replica vaya por detras; otro cliente lee del replica
+		mockMvc.perform(get("/accounts/" + account.getId()).header(ReplicaPinningFilter.CLIENT_ID_HEADER, "teller-1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.balance").value(125.00));
+		mockMvc.perform(get("/accounts/" + account.getId()).header(ReplicaPinningFilter.CLIENT_ID_HEADER, "teller-2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.balance").value(100.00));
+	}
+
+	private void replicate() {
+		List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+		JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+		replica.execute("DROP ALL OBJECTS");
+		for (String statement : script) {
+			replica.execute(statement);
+		}
+	}
+
+	private void setReplicaBalance(long accountId, long balance) {
+		new JdbcTemplate(replicaDataSource).update("UPDATE account SET balance_minor = ? WHERE id = ?", balance, accountId);
+	}
+
+	private long primaryBalance(long accountId) {
+		return new JdbcTemplate(primaryDataSource).queryForObject(
+				"SELECT balance_minor FROM account WHERE id = ?", Long.class, accountId);
+	}
+}
@@ -0,0 +1,58 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.metrics.RequestSqlCounter;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.repository.AccountRepository;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sentencias SQL por peticion: se cuentan en la conexion, asi que entran las de Hibernate y las de JdbcTemplate
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestSqlCounterTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	public void testStatements_CountsHibernateAndJdbcTemplate() {
+		Account account = accountService.createAccount(1000L, Account.TypeAccount.ahorros, 951L);
+		RequestSqlCounter.reset();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account", Long.class);
+		assertEquals(1, RequestSqlCounter.statements());
+		accountRepository.findById(account.getId());
+		assertEquals(2, RequestSqlCounter.statements());
+		RequestSqlCounter.reset();
+	}
+
+	@Test
+	public void testRequest_RecordsStatementsByEndpoint() throws Exception {
+		Account account = accountService.createAccount(1000L, Account.TypeAccount.ahorros, 952L);
+		mockMvc.perform(get("/accounts/" + account.getId()))
+				.andExpect(status().isOk());
+		assertTrue(meterRegistry.get("accounts.request.sql.statements")
+				.tag("uri", "/accounts/{id}").summary().totalAmount() >= 1);
+	}
+}
@@ -0,0 +1,210 @@
+package com.corebankingsystem.AccountMs;
+
+import com.corebankingsystem.AccountMs.DTO.AccountPageDTO;
+import com.corebankingsystem.AccountMs.DTO.ChangesPageDTO;
+import com.corebankingsystem.AccountMs.datasource.ShardContext;
+import com.corebankingsystem.AccountMs.datasource.ShardRouter;
+import com.corebankingsystem.AccountMs.model.entity.Account;
+import com.corebankingsystem.AccountMs.model.entity.OutboxEvent;
+import com.corebankingsystem.AccountMs.outbox.ChangeFeed;
+import com.corebankingsystem.AccountMs.outbox.InMemoryOutboxSink;
+import com.corebankingsystem.AccountMs.outbox.OutboxRelay;
+import com.corebankingsystem.AccountMs.service.AccountService;
+import com.corebankingsystem.AccountMs.service.impl.AccountNumberAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Reparto en tres H2 en memoria: el shard 0 es la base de src/test/resources y los shards 1 y 2 son bases aparte.
+// El contenido de cada shard se comprueba con SQL directo sobre su base. El relay del outbox se ejecuta a mano.
+@SpringBootTest(properties = {
+		"accounts.outbox.sink=memory",
+		"accounts.outbox.relay-interval-ms=3600000",
+		"accounts.sharding.shard-urls="
+				+ "jdbc:h2:mem:accountms-shard1-${random.uuid};DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000,"
+				+ "jdbc:h2:mem:accountms-shard2-${random.uuid};DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@AutoConfigureMockMvc
+class ShardingTests {
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private InMemoryOutboxSink sink;
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	@Test
+	public void testCreateAccount_StoresTheAccountOnTheCustomerShard() {
+		for (long customerId = 900L; customerId < 903L; customerId++) {
+			Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, customerId);
+			int shard = (int) (customerId % 3);
+			assertEquals(shard, shardRouter.shardOfId(account.getId()));
+			assertEquals(shard, shardRouter.shardOfAccountNumber(account.getAccountNumber()));
+			assertTrue(account.getAccountNumber().startsWith(String.format("%02d", shard)));
+			assertTrue(AccountNumberAllocator.hasValidCheckDigit(account.getAccountNumber()));
+			for (int other = 0; other < 3; other++) {
+				assertEquals(other == shard ? 1 : 0, countOnShard(other, "SELECT COUNT(*) FROM account WHERE id = ?", account.getId()));
+				assertEquals(other == shard ? 1 : 0, countOnShard(other, "SELECT COUNT(*) FROM account_movement WHERE account_id = ?", account.getId()));
+			}
+		}
+	}
+
+	// Con el maximo de 10 shards un numero anterior al reparto sigue en el shard 0 y el id mas alto es exacto
+	// en JavaScript; con 11 la aplicacion no arranca
+	@Test
+	public void testShardLimit_KeepsLegacyNumbersAndIdsSafe() {
+		ShardRouter tenShards = new ShardRouter(new String[9]);
+		try {
+			assertEquals(0, tenShards.shardOfAccountNumber("10000000009"));
+			assertEquals(0, tenShards.shardOfAccountNumber("123456"));
+			assertEquals(9, tenShards.shardOfAccountNumber("0910000000001"));
+			assertTrue(ShardRouter.firstId(9) + (1L << ShardRouter.ID_SHARD_SHIFT) - 1 <= 1L << 53);
+		} finally {
+			tenShards.shutdown();
+		}
+		assertThrows(IllegalStateException.class, () -> new ShardRouter(new String[10]));
+	}
+
+	@Test
+	public void testLookupsAndBalanceChanges_GoToTheOwningShard() {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 905L);
+		assertEquals(2, shardRouter.shardOfId(account.getId()));
+
+		assertTrue(accountService.getAccountId(account.getId()).isPresent());
+		assertEquals(account.getId(), accountService.getAccountIdByNumber(account.getAccountNumber()).get());
+		assertEquals(200, accountService.deposit(account.getId(), 2500L).getStatusCode().value());
+		assertEquals(200, accountService.withdraw(account.getId(), 500L).getStatusCode().value());
+		assertEquals(12000L, accountService.getAccountByNumber(account.getAccountNumber()).get().getBalance());
+		assertEquals(12000L, ShardContext.on(2, () -> jdbcTemplate.queryForObject(
+				"SELECT balance_minor FROM account WHERE id = ?", Long.class, account.getId())));
+		assertEquals(1, accountService.getCustomerId(905L).get().size());
+		assertEquals(12000L, accountService.getCustomerSummary(905L).getBalance());
+	}
+
+	@Test
+	public void testGlobalQueries_FanOutToEveryShard() {
+		Set<Long> created = new HashSet<>();
+		for (long customerId = 910L; customerId < 916L; customerId++) {
+			created.add(accountService.createAccount(10000L, Account.TypeAccount.corriente, customerId).getId());
+		}
+		Set<Long> all = new HashSet<>();
+		for (Account account : accountService.getAccounts()) {
+			all.add(account.getId());
+		}
+		assertTrue(all.containsAll(created));
+
+		// Recorrer todas las paginas devuelve cada cuenta una vez y en orden de id, aunque esten en shards distintos
+		List<Long> paged = new ArrayList<>();
+		Long cursor = null;
+		do {
+			AccountPageDTO page = accountService.getAccountsPage(cursor, 2, Account.TypeAccount.corriente, null);
+			page.getContent().forEach(account -> paged.add(account.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertTrue(paged.containsAll(created));
+		for (int i = 1; i < paged.size(); i++) {
+			assertTrue(paged.get(i - 1) < paged.get(i));
+		}
+	}
+
+	@Test
+	public void testTransfer_OnlyWithinOneShard() {
+		Account source = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 921L);
+		Account sameShard = accountService.createAccount(0L, Account.TypeAccount.ahorros, 924L);
+		Account otherShard = accountService.createAccount(0L, Account.TypeAccount.ahorros, 922L);
+
+		assertEquals(200, accountService.transfer(source.getId(), sameShard.getId(), 1000L).getStatusCode().value());
+		assertEquals(422, accountService.transfer(source.getId(), otherShard.getId(), 1000L).getStatusCode().value());
+		assertEquals(9000L, accountService.getAccountId(source.getId()).get().getBalance());
+		assertEquals(0L, accountService.getAccountId(otherShard.getId()).get().getBalance());
+	}
+
+	@Test
+	public void testIdempotentDeposit_StoresTheKeyOnTheAccountShard() throws Exception {
+		Account account = accountService.createAccount(10000L, Account.TypeAccount.ahorros, 932L);
+		String body = "{\"accountNumber\":\"" + account.getAccountNumber() + "\",\"amount\":25.00}";
+		for (int attempt = 0; attempt < 2; attempt++) {
+			mockMvc.perform(post("/accounts/tDeposit").header("Idempotency-Key", "shard-key-1")
+							.contentType(MediaType.APPLICATION_JSON).content(body))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.balance").value(125.00));
+		}
+		assertEquals(1, countOnShard(2, "SELECT COUNT(*) FROM idempotency_key WHERE idempotency_key = ?", "shard-key-1"));
+		assertEquals(0, countOnShard(0, "SELECT COUNT(*) FROM idempotency_key WHERE idempotency_key = ?", "shard-key-1"));
+	}
+
+	@Test
+	public void testChangeFeed_MergesEveryShardWithUniquePositions() {
+		outboxRelay.relay();
+		String cursor = drain("0").getNextCursor();
+		sink.clear();
+
+		Set<Long> created = new HashSet<>();
+		for (long customerId = 940L; customerId < 943L; customerId++) {
+			created.add(accountService.createAccount(10000L, Account.TypeAccount.ahorros, customerId).getId());
+		}
+		assertEquals(3, outboxRelay.relay());
+
+		// Posiciones unicas entre shards y con el shard de la cuenta en los bits altos
+		Set<Long> positions = new HashSet<>();
+		for (OutboxEvent event : sink.getPublished()) {
+			assertTrue(positions.add(event.getPosition()));
+			assertEquals(shardRouter.shardOfId(event.getAccountId()), shardRouter.shardOfId(event.getPosition()));
+		}
+
+		// El feed devuelve las altas de los tres shards, paginando con el cursor por shard
+		ChangesPageDTO first = (ChangesPageDTO) changeFeed.poll(cursor, 2, 0L).getResult();
+		ChangesPageDTO second = (ChangesPageDTO) changeFeed.poll(first.getNextCursor(), 10, 0L).getResult();
+		Set<Long> fed = new HashSet<>();
+		first.getEvents().forEach(event -> fed.add(event.getAccountId()));
+		second.getEvents().forEach(event -> fed.add(event.getAccountId()));
+		assertEquals(2, first.getEvents().size());
+		assertEquals(created, fed);
+		assertEquals(3, second.getNextCursor().split(",").length);
+		assertTrue(((ChangesPageDTO) changeFeed.poll(second.getNextCursor(), 10, 0L).getResult()).getEvents().isEmpty());
+
+		assertTrue(changeFeed.poll("1,2,3,4", 10, 0L).getResult() instanceof ResponseStatusException);
+	}
+
+	private ChangesPageDTO drain(String cursor) {
+		ChangesPageDTO page;
+		do {
+			page = (ChangesPageDTO) changeFeed.poll(cursor, 1000, 0L).getResult();
+			cursor = page.getNextCursor();
+		} while (!page.getEvents().isEmpty());
+		return page;
+	}
+
+	private int countOnShard(int shard, String sql, Object argument) {
+		return ShardContext.on(shard, () -> jdbcTemplate.queryForObject(sql, Integer.class, argument));
+	}
+}
@@ -0,0 +1,38 @@
+package com.corebankingsystem.AccountMs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Con spring.threads.virtual.enabled Tomcat debe atender las peticiones en hilos virtuales (solo Java 21+)
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.threads.virtual.enabled=true")
+@Import(VirtualThreadModeTests.ThreadProbe.class)
+class VirtualThreadModeTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	public void testRequestHandling_RunsOnVirtualThread() {
+		String thread = restTemplate.getForObject("/thread-probe", String.class);
+		assertTrue(thread.startsWith("VirtualThread["), thread);
+	}
+
+	@RestController
+	static class ThreadProbe {
+		@GetMapping("/thread-probe")
+		public String currentThread() {
+			return Thread.currentThread().toString();
+		}
+	}
+}